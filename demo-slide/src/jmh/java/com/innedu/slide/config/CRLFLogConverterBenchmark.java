@@ -0,0 +1,74 @@
+package com.innedu.slide.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CRLFLogConverter#transform} runs for every formatted log line, so its cost is paid on
+ * each request that logs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CRLFLogConverterBenchmark {
+
+    public enum Message {
+        /** An application line with nothing to replace */
+        PLAIN("com.innedu.slide.service.TemplateService",
+                "Synced new template from file: gioi-thieu-lap-trinh-huong-doi-tuong.html (id=1024, 42 slides)"),
+        /** User input carrying line breaks and tabs */
+        FORGED("com.innedu.slide.controller.TemplateController",
+                "Template not found: bài giảng\r\n2025-01-01 INFO  [main] Đăng nhập thành công\tuser=admin"),
+        /** A logger on the safe list, returned unchanged */
+        SAFE_LOGGER("org.hibernate.SQL",
+                "select t1_0.id,t1_0.display_name,t1_0.description\nfrom templates t1_0\nwhere t1_0.id=?");
+
+        final String logger;
+        final String text;
+
+        Message(String logger, String text) {
+            this.logger = logger;
+            this.text = text;
+        }
+    }
+
+    @Param
+    Message message;
+
+    private CRLFLogConverter converter;
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        converter = new CRLFLogConverter();
+        converter.setContext(context);
+        converter.setOptionList(List.of("red"));
+        converter.start();
+        event = new LoggingEvent(CRLFLogConverterBenchmark.class.getName(), context.getLogger(message.logger),
+                Level.INFO, message.text, null, null);
+    }
+
+    @Benchmark
+    public String transform() {
+        return converter.transform(event, message.text);
+    }
+}
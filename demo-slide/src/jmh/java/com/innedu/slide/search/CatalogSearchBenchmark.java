@@ -0,0 +1,131 @@
+package com.innedu.slide.search;
+
+import com.innedu.slide.DemoSlideApp;
+import com.innedu.slide.dto.TemplateBatchRequest;
+import com.innedu.slide.dto.TemplateBatchResponse;
+import com.innedu.slide.repository.TemplateSortKey;
+import com.innedu.slide.repository.TemplateSummary;
+import com.innedu.slide.service.TemplateCursor;
+import com.innedu.slide.service.TemplateFileWriter;
+import com.innedu.slide.service.TemplateService;
+import com.innedu.slide.support.SampleDecks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog queries against the application context on an in-memory H2 database seeded with
+ * {@code catalogSize} decks: ranked search through the index, and the keyset-paged and active
+ * listings served by the repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogSearchBenchmark {
+
+    private static final int SLIDES = 30;
+
+    @Param({"2000"})
+    int catalogSize;
+
+    private Path templatesDir;
+    private ConfigurableApplicationContext context;
+    private TemplateService templateService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        templatesDir = Files.createTempDirectory("slide-bench");
+        context = new SpringApplicationBuilder(DemoSlideApp.class)
+                .web(WebApplicationType.NONE)
+                // As arguments, so they override application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:slide-bench;DB_CLOSE_DELAY=-1",
+                        "--app.templates.path=" + templatesDir,
+                        "--app.templates.watch.enabled=false",
+                        "--logging.level.p6spy=WARN",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.innedu.slide=WARN");
+        templateService = context.getBean(TemplateService.class);
+        seed();
+        // Let the file write-behind finish so it does not run during measurement
+        context.getBean(TemplateFileWriter.class).awaitDrained(2, TimeUnit.MINUTES);
+    }
+
+    private void seed() {
+        Random random = new Random(7);
+        for (int from = 0; from < catalogSize; from += TemplateBatchRequest.MAX_ITEMS) {
+            List<TemplateBatchRequest.Item> items = new ArrayList<>();
+            for (int i = from; i < Math.min(from + TemplateBatchRequest.MAX_ITEMS, catalogSize); i++) {
+                TemplateBatchRequest.Item item = new TemplateBatchRequest.Item();
+                item.setOp(TemplateBatchRequest.Item.Operation.CREATE);
+                item.setName(SampleDecks.name(i));
+                item.setDisplayName(SampleDecks.displayName(i));
+                item.setDescription(SampleDecks.sentence(random, 12));
+                item.setContent(SampleDecks.deck(i, SLIDES / 2 + random.nextInt(SLIDES)));
+                items.add(item);
+            }
+            TemplateBatchResponse response = templateService.applyBatch(items);
+            if (response.getFailed() > 0) {
+                throw new IllegalStateException("Seeding failed: " + response.getResults().stream()
+                        .filter(result -> result.error() != null).findFirst().orElseThrow());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(templatesDir);
+    }
+
+    @Benchmark
+    public TemplateSearchIndex.SearchResult searchVietnamese() {
+        return templateService.searchTemplates("lập trình", 0, 20);
+    }
+
+    @Benchmark
+    public TemplateSearchIndex.SearchResult searchUnaccented() {
+        return templateService.searchTemplates("lap trinh java", 0, 20);
+    }
+
+    @Benchmark
+    public TemplateSearchIndex.SearchResult searchPrefix() {
+        return templateService.searchTemplates("phân tí", 0, 20);
+    }
+
+    @Benchmark
+    public Window<TemplateSummary> firstSlice() {
+        return templateService.getTemplatesSlice(TemplateCursor.first(TemplateSortKey.CREATED_AT, Sort.Direction.DESC), 20);
+    }
+
+    @Benchmark
+    public List<TemplateSummary> activeTemplates() {
+        return templateService.getActiveTemplates();
+    }
+}
@@ -0,0 +1,55 @@
+package com.innedu.slide.service;
+
+import com.innedu.slide.support.SampleDecks;
+import com.innedu.slide.parser.DeckParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-file work of the template import: display names from file names, and the deck scan that
+ * yields the theme, title and slide ranges (it replaced the regex-based theme extraction).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateServiceBenchmark {
+
+    @Param({"10", "60", "250"})
+    int slides;
+
+    private String deck;
+
+    @Setup
+    public void setUp() {
+        deck = SampleDecks.deck(42, slides);
+    }
+
+    @Benchmark
+    public String capitalizeWordsAscii() {
+        return TemplateService.capitalizeWords("business template quarterly review");
+    }
+
+    @Benchmark
+    public String capitalizeWordsVietnamese() {
+        return TemplateService.capitalizeWords("giới thiệu lập trình hướng đối tượng với java");
+    }
+
+    @Benchmark
+    public String extractTheme() {
+        return DeckParser.parse(deck).theme();
+    }
+}
@@ -0,0 +1,152 @@
+package com.innedu.slide.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are sent on a fixed schedule, {@code 1/rate} apart, whether or not
+ * earlier ones have completed. Each latency is taken from the scheduled send time, so when the
+ * server (or the generator) falls behind, the queueing delay is counted against the requests
+ * that waited.
+ */
+class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final Workload workload;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<String, LongAdder>> outcomes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong inFlight = new AtomicLong();
+
+    LoadGenerator(LoadTestOptions options, HttpClient client, Workload workload) {
+        this.options = options;
+        this.client = client;
+        this.workload = workload;
+        for (Operation operation : options.mix().keySet()) {
+            recorders.put(operation, new Recorder(3));
+            outcomes.put(operation, new ConcurrentHashMap<>());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    LoadReport run(String target) throws InterruptedException {
+        Operation[] schedule = weightedOperations();
+        Random random = new Random(options.seed());
+        String startedAt = Instant.now().toString();
+        double intervalNanos = 1e9 / options.rate();
+
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        long maxSendLag = 0;
+        logger.info("Sending {} requests/s: {} warm-up, then {} measured", options.rate(), options.warmup(), options.duration());
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * intervalNanos);
+            if (scheduled >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            boolean measured = scheduled >= measureStart;
+            if (measured) {
+                maxSendLag = Math.max(maxSendLag, now - scheduled);
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = workload.request(operation, random);
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (measured) {
+                    record(operation, System.nanoTime() - scheduled, response, failure);
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+
+        // Requests time out on their own; wait for them and a little more
+        long deadline = System.nanoTime() + options.timeout().toNanos() + TimeUnit.SECONDS.toNanos(5);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return report(target, startedAt, maxSendLag);
+    }
+
+    /**
+     * Operations repeated by weight, so a uniform pick follows the mix
+     */
+    private Operation[] weightedOperations() {
+        return options.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    private void record(Operation operation, long latencyNanos, HttpResponse<?> response, Throwable failure) {
+        recorders.get(operation).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        String outcome;
+        if (response != null) {
+            outcome = String.valueOf(response.statusCode());
+            if (response.statusCode() >= 400) {
+                errors.get(operation).increment();
+            }
+        } else {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            outcome = cause instanceof HttpTimeoutException ? "timeout"
+                    : cause instanceof ConnectException ? "connect-error" : "io-error";
+            errors.get(operation).increment();
+        }
+        outcomes.get(operation).computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    private LoadReport report(String target, String startedAt, long maxSendLagNanos) {
+        double seconds = options.duration().toNanos() / 1e9;
+        Map<String, LoadReport.Endpoint> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Long> totalOutcomes = new TreeMap<>();
+        for (Operation operation : options.mix().keySet()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            Map<String, Long> statusCodes = new TreeMap<>();
+            outcomes.get(operation).forEach((outcome, count) -> statusCodes.put(outcome, count.sum()));
+            long operationErrors = errors.get(operation).sum();
+            endpoints.put(operation.key(), LoadReport.Endpoint.of(histogram, operationErrors, statusCodes, seconds));
+
+            total.add(histogram);
+            totalErrors += operationErrors;
+            statusCodes.forEach((outcome, count) -> totalOutcomes.merge(outcome, count, Long::sum));
+        }
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        return new LoadReport(target, startedAt, options.rate(), options.warmup().toNanos() / 1e9, seconds, mix,
+                options.catalog(), options.seed(), maxSendLagNanos / 1_000_000.0, inFlight.get(),
+                LoadReport.Endpoint.of(total, totalErrors, totalOutcomes, seconds), endpoints);
+    }
+}
@@ -0,0 +1,134 @@
+package com.innedu.slide.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result of a load test run, written as JSON so runs of different builds can be diffed.
+ *
+ * <p>Latencies are measured from the time each request was scheduled to be sent, not from when it
+ * was actually sent, so a stalled server shows up in the percentiles instead of lowering the
+ * request rate (no coordinated omission). Each endpoint also carries its full HDR histogram,
+ * base64 of the compressed encoding in microseconds, for tools that merge or plot histograms.
+ *
+ * @param maxSendLagMs largest delay between a request's scheduled and actual send; when this is
+ *                     large the generator, not the server, was the bottleneck
+ * @param unfinished   measured requests still without a response when the run ended
+ */
+public record LoadReport(String target,
+                         String startedAt,
+                         double rate,
+                         double warmupSeconds,
+                         double durationSeconds,
+                         Map<String, Integer> mix,
+                         int catalog,
+                         long seed,
+                         double maxSendLagMs,
+                         long unfinished,
+                         Endpoint total,
+                         Map<String, Endpoint> endpoints) {
+
+    static final String[] PERCENTILES = {"p50", "p90", "p95", "p99", "p99.9"};
+
+    /**
+     * @param statusCodes responses per HTTP status, and failures per kind ("timeout", "io-error")
+     * @param latencyMs   percentiles, mean and max
+     */
+    public record Endpoint(long requests,
+                           long errors,
+                           Map<String, Long> statusCodes,
+                           double throughput,
+                           Map<String, Double> latencyMs,
+                           String histogram) {
+
+        static Endpoint of(Histogram micros, long errors, Map<String, Long> statusCodes, double seconds) {
+            Map<String, Double> latency = new LinkedHashMap<>();
+            for (String percentile : PERCENTILES) {
+                latency.put(percentile, millis(micros.getValueAtPercentile(Double.parseDouble(percentile.substring(1)))));
+            }
+            latency.put("mean", Math.round(micros.getMean()) / 1000.0);
+            latency.put("max", millis(micros.getMaxValue()));
+
+            ByteBuffer buffer = ByteBuffer.allocate(micros.getNeededByteBufferCapacity());
+            int length = micros.encodeIntoCompressedByteBuffer(buffer);
+            String encoded = Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+
+            long requests = micros.getTotalCount();
+            return new Endpoint(requests, errors, statusCodes, Math.round(requests / seconds * 10) / 10.0, latency, encoded);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public void write(Path path, ObjectMapper objectMapper) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+    }
+
+    public static LoadReport read(Path path, ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readValue(path.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Per-endpoint summary for the console
+     */
+    public String table() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((name, endpoint) -> row(table, name, endpoint));
+        row(table, "total", total);
+        return table.toString();
+    }
+
+    private static void row(StringBuilder table, String name, Endpoint endpoint) {
+        Map<String, Double> latency = endpoint.latencyMs();
+        table.append(String.format(Locale.ROOT, "%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, endpoint.requests(), endpoint.errors(), endpoint.throughput(), latency.get("p50"),
+                latency.get("p95"), latency.get("p99"), latency.get("p99.9"), latency.get("max")));
+    }
+
+    /**
+     * Change of throughput and tail latency per endpoint against an earlier run
+     */
+    public String compare(LoadReport baseline) {
+        StringBuilder comparison = new StringBuilder(String.format(Locale.ROOT,
+                "%-10s %16s %16s %16s%n", "endpoint", "req/s", "p99 ms", "p99.9 ms"));
+        Map<String, Endpoint> all = new LinkedHashMap<>(endpoints);
+        all.put("total", total);
+        Map<String, Endpoint> before = new LinkedHashMap<>(baseline.endpoints());
+        before.put("total", baseline.total());
+        all.forEach((name, endpoint) -> {
+            Endpoint old = before.get(name);
+            if (old == null) {
+                comparison.append(String.format(Locale.ROOT, "%-10s %16s%n", name, "(not in baseline)"));
+                return;
+            }
+            comparison.append(String.format(Locale.ROOT, "%-10s %16s %16s %16s%n", name,
+                    change(old.throughput(), endpoint.throughput()),
+                    change(old.latencyMs().get("p99"), endpoint.latencyMs().get("p99")),
+                    change(old.latencyMs().get("p99.9"), endpoint.latencyMs().get("p99.9"))));
+        });
+        return comparison.toString();
+    }
+
+    private static String change(double before, double after) {
+        String percent = before == 0 ? "n/a" : String.format(Locale.ROOT, "%+.1f%%", (after - before) * 100 / before);
+        return String.format(Locale.ROOT, "%.1f (%s)", after, percent);
+    }
+}
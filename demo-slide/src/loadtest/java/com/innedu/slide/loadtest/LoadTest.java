@@ -0,0 +1,88 @@
+package com.innedu.slide.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.DemoSlideApp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Replays a mix of API calls at a fixed arrival rate and reports per-endpoint latency
+ * percentiles. Without {@code --target} the application is started in this JVM on a random port,
+ * with an in-memory H2 database; either way the catalog is seeded through the API first.
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="--rate=200 --duration=60s"
+ * </pre>
+ *
+ * See {@link LoadTestOptions#USAGE} for the options.
+ */
+public class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        ConfigurableApplicationContext embedded = null;
+        Path templatesDir = null;
+        String target = options.target();
+        try {
+            if (target == null) {
+                templatesDir = Files.createTempDirectory("slide-loadtest");
+                embedded = startEmbedded(templatesDir);
+                target = "http://localhost:" + ((WebServerApplicationContext) embedded).getWebServer().getPort();
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Workload workload = new Workload(URI.create(target), client, objectMapper, options);
+            workload.seed();
+            LoadReport report = new LoadGenerator(options, client, workload).run(target);
+
+            report.write(options.report(), objectMapper);
+            System.out.println();
+            System.out.print(report.table());
+            System.out.printf("Report written to %s (max send lag %.1f ms, %d unfinished)%n",
+                    options.report().toAbsolutePath(), report.maxSendLagMs(), report.unfinished());
+            if (options.baseline() != null) {
+                System.out.println();
+                System.out.println("Against " + options.baseline() + ":");
+                System.out.print(report.compare(LoadReport.read(options.baseline(), objectMapper)));
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+            if (templatesDir != null) {
+                FileSystemUtils.deleteRecursively(templatesDir);
+            }
+        }
+        // Client worker threads are not daemons
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(Path templatesDir) {
+        logger.info("Starting embedded application");
+        return new SpringApplicationBuilder(DemoSlideApp.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:slide-loadtest;DB_CLOSE_DELAY=-1",
+                "--app.templates.path=" + templatesDir,
+                "--app.templates.watch.enabled=false",
+                "--logging.level.p6spy=WARN",
+                "--logging.level.com.innedu.slide=INFO",
+                "--logging.level.com.innedu.slide.service=WARN");
+    }
+}
@@ -0,0 +1,125 @@
+package com.innedu.slide.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options of a load test run, from {@code --name=value} arguments; later arguments win.
+ *
+ * @param target    base URL of a running instance; null starts an embedded one
+ * @param rate      requests per second, across all operations
+ * @param mix       relative weight of each operation
+ * @param catalog   templates seeded before the run
+ * @param report    where the JSON report is written
+ * @param baseline  an earlier report to compare against, or null
+ */
+public record LoadTestOptions(String target,
+                              double rate,
+                              Duration duration,
+                              Duration warmup,
+                              Map<Operation, Integer> mix,
+                              int catalog,
+                              int slides,
+                              Duration timeout,
+                              long seed,
+                              Path report,
+                              Path baseline) {
+
+    static final String USAGE = """
+            Options (all optional):
+              --target=http://host:port   run against this instance instead of an embedded one
+              --rate=100                  requests per second (open model, fixed arrival rate)
+              --duration=60s              measured run time
+              --warmup=10s                run time before measuring
+              --mix=list:25,search:30,get:30,create:5,update:10
+              --catalog=500               templates seeded before the run
+              --slides=30                 average slides per seeded deck
+              --timeout=10s               per-request timeout
+              --seed=1                    seed of the operation mix and request data
+              --report=loadtest-report.json
+              --baseline=<earlier report> print the change against an earlier run""";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg + "\n" + USAGE);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        String baseline = values.remove("baseline");
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("target"),
+                Double.parseDouble(take(values, "rate", "100")),
+                duration(take(values, "duration", "60s")),
+                duration(take(values, "warmup", "10s")),
+                mix(take(values, "mix", "list:25,search:30,get:30,create:5,update:10")),
+                Integer.parseInt(take(values, "catalog", "500")),
+                Integer.parseInt(take(values, "slides", "30")),
+                duration(take(values, "timeout", "10s")),
+                Long.parseLong(take(values, "seed", "1")),
+                Path.of(take(values, "report", "loadtest-report.json")),
+                baseline == null ? null : Path.of(baseline));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option(s): " + values.keySet() + "\n" + USAGE);
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (options.catalog <= 0 && (options.mix.containsKey(Operation.GET_BY_NAME) || options.mix.containsKey(Operation.UPDATE))) {
+            throw new IllegalArgumentException("get and update pick seeded templates; --catalog must be positive");
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * "90s", "5m" or "500ms"
+     */
+    private static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    /**
+     * "list:25,search:30" -> {LIST=25, SEARCH=30}
+     */
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix, got: " + part);
+            }
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(entry[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+}
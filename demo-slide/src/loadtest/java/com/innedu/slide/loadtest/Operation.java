@@ -0,0 +1,32 @@
+package com.innedu.slide.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The API calls a load test mixes, named by their {@code --mix} key
+ */
+public enum Operation {
+    LIST("list"),
+    SEARCH("search"),
+    GET_BY_NAME("get"),
+    CREATE("create"),
+    UPDATE("update");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(Operation::key).toList()));
+    }
+}
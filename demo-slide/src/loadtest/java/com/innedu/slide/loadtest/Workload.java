@@ -0,0 +1,159 @@
+package com.innedu.slide.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.support.SampleDecks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds the catalog through the batch endpoint and builds the requests of each operation against
+ * it. Request data is drawn from the caller's {@link Random}, so a run is reproducible from its seed.
+ */
+class Workload {
+
+    private static final Logger logger = LoggerFactory.getLogger(Workload.class);
+
+    private static final int SEED_BATCH_SIZE = 100;
+    private static final int DECK_POOL_SIZE = 32;
+
+    private static final String[] QUERIES = {
+            "lập trình", "lap trinh java", "cơ sở dữ liệu", "co so du lieu", "lịch sử", "hóa học",
+            "bài giảng", "phân tích", "thuyết trình", "mạng máy tính", "overview", "kinh tế vi mô"};
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int catalogSize;
+    private final String runTag;
+
+    // JSON string literals of pre-generated decks, so request bodies are cheap to build
+    private final List<String> deckPool = new ArrayList<>();
+    private final List<Long> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private long created;
+
+    Workload(URI baseUri, HttpClient client, ObjectMapper objectMapper, LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.timeout = options.timeout();
+        this.catalogSize = options.catalog();
+        // Names are unique per run, so a run against a shared instance does not collide with earlier ones
+        this.runTag = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < DECK_POOL_SIZE; i++) {
+            deckPool.add(json(SampleDecks.deck(options.seed() * 1000 + i, options.slides())));
+        }
+    }
+
+    /**
+     * Create the catalog the read and update operations work on
+     */
+    void seed() throws IOException, InterruptedException {
+        Random random = new Random(0);
+        long start = System.nanoTime();
+        for (int from = 0; from < catalogSize; from += SEED_BATCH_SIZE) {
+            StringBuilder body = new StringBuilder("{\"items\":[");
+            List<String> batchNames = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, catalogSize); i++) {
+                String name = "tai-lieu-" + runTag + "-" + i;
+                batchNames.add(name);
+                body.append(i > from ? "," : "").append("{\"op\":\"CREATE\",")
+                        .append(fields(name, SampleDecks.displayName(i), SampleDecks.sentence(random, 12),
+                                deckPool.get(i % deckPool.size())))
+                        .append('}');
+            }
+            body.append("]}");
+
+            HttpResponse<String> response = client.send(post("/api/templates/batch", body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode results = objectMapper.readTree(response.body()).path("results");
+            if (!results.isArray()) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : results) {
+                if ("FAILED".equals(result.path("status").asText())) {
+                    throw new IllegalStateException("Seeding failed: " + result);
+                }
+                ids.add(result.path("id").asLong());
+                names.add(batchNames.get(result.path("index").asInt()));
+            }
+        }
+        logger.info("Seeded {} templates in {} ms", ids.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    HttpRequest request(Operation operation, Random random) {
+        return switch (operation) {
+            case LIST -> get("/api/templates/paged?size=20&sort=createdAt,desc");
+            case SEARCH -> get("/api/templates/search?size=20&q="
+                    + URLEncoder.encode(QUERIES[random.nextInt(QUERIES.length)], StandardCharsets.UTF_8));
+            case GET_BY_NAME -> get("/api/templates/name/"
+                    + URLEncoder.encode(names.get(random.nextInt(names.size())), StandardCharsets.UTF_8));
+            case CREATE -> {
+                String name = "tai-lieu-" + runTag + "-moi-" + created++;
+                yield post("/api/templates", "{" + fields(name, "Bài giảng mới " + created,
+                        SampleDecks.sentence(random, 12), randomDeck(random)) + "}");
+            }
+            case UPDATE -> {
+                int i = random.nextInt(ids.size());
+                yield HttpRequest.newBuilder(baseUri.resolve("/api/templates/" + ids.get(i)))
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{" + fields(null, SampleDecks.displayName(i),
+                                SampleDecks.sentence(random, 12), randomDeck(random)) + "}"))
+                        .build();
+            }
+        };
+    }
+
+    private String randomDeck(Random random) {
+        return deckPool.get(random.nextInt(deckPool.size()));
+    }
+
+    private String fields(String name, String displayName, String description, String contentJson) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (name != null) {
+            fields.put("name", name);
+        }
+        fields.put("displayName", displayName);
+        fields.put("description", description);
+        String json = json(fields);
+        return json.substring(1, json.length() - 1) + ",\"content\":" + contentJson;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
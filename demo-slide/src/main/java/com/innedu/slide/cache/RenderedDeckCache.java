@@ -0,0 +1,130 @@
+package com.innedu.slide.cache;
+
+import com.innedu.slide.event.TemplateChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of rendered deck pages, keyed by template id, version and theme.
+ *
+ * <p>Because the version is part of the key, an edit can never be served from a stale entry;
+ * entries of older versions are dropped when the template changes, or age out. Rendering runs
+ * outside the lock, so two concurrent misses for the same key may both render.
+ */
+@Component
+public class RenderedDeckCache {
+
+    /** Fixed per-entry overhead added to the rendered size. */
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RenderedDeckCache(@Value("${app.cache.decks.max-entries:512}") int maxEntries,
+                             @Value("${app.cache.decks.max-weight:16777216}") long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Return the cached page or render and cache it.
+     */
+    public byte[] get(Key key, Supplier<byte[]> renderer) {
+        lock.lock();
+        try {
+            byte[] cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+        byte[] rendered = renderer.get();
+        lock.lock();
+        try {
+            byte[] previous = entries.put(key, rendered);
+            if (previous != null) {
+                weight -= weightOf(previous);
+            }
+            weight += weightOf(rendered);
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+        return rendered;
+    }
+
+    /**
+     * Drop every rendered variant of a template
+     */
+    public void invalidate(Long templateId) {
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Key, byte[]>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, byte[]> entry = it.next();
+                if (entry.getKey().templateId().equals(templateId)) {
+                    weight -= weightOf(entry.getValue());
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (event.getType() != TemplateChangedEvent.Type.CREATED) {
+            invalidate(event.getId());
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            long h = hits.get();
+            long m = misses.get();
+            return new Stats(h, m, h + m == 0 ? 0 : (double) h / (h + m), evictions.get(),
+                    entries.size(), weight, maxEntries, maxWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, byte[]>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            weight -= weightOf(it.next().getValue());
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weightOf(byte[] page) {
+        return ENTRY_OVERHEAD + page.length;
+    }
+
+    public record Key(Long templateId, Long version, String theme) {}
+
+    public record Stats(long hits, long misses, double hitRate, long evictions,
+                        int size, long weight, int maxEntries, long maxWeight) {}
+}
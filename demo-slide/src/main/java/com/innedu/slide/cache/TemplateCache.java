@@ -0,0 +1,244 @@
+package com.innedu.slide.cache;
+
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of full templates (content included), keyed by id and by
+ * normalized name.
+ *
+ * <p>Eviction is LRU and kicks in when either the entry count or the total weight (compressed
+ * plus decompressed content size) goes over its limit. Cached values are detached copies shared between callers and must
+ * not be modified. Entries are invalidated after each committed update or delete; a load that
+ * raced with an invalidation is not cached.
+ */
+@Component
+public class TemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+
+    /** Fixed per-entry overhead added to the content weight. */
+    private static final long ENTRY_OVERHEAD = 512;
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, CachedTemplate> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private long weight;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TemplateCache(@Value("${app.cache.templates.max-entries:256}") int maxEntries,
+                         @Value("${app.cache.templates.max-weight:33554432}") long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    public static String normalizeName(String name) {
+        return Template.normalizeName(name);
+    }
+
+    /**
+     * Return the cached template or load it; the loader runs without holding the cache lock.
+     */
+    public Optional<Template> getById(Long id, Supplier<Optional<Template>> loader) {
+        lock.lock();
+        long loadGeneration;
+        try {
+            CachedTemplate cached = entries.get(id);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(cached.template);
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+        return loader.get().map(template -> put(template, loadGeneration));
+    }
+
+    public Optional<Template> getByName(String name, Supplier<Optional<Template>> loader) {
+        String key = normalizeName(name);
+        lock.lock();
+        long loadGeneration;
+        try {
+            Long id = idsByName.get(key);
+            CachedTemplate cached = id != null ? entries.get(id) : null;
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(cached.template);
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+        misses.incrementAndGet();
+        return loader.get().map(template -> put(template, loadGeneration));
+    }
+
+    /**
+     * Return the cached template, if present, without loading it or counting a hit or miss
+     */
+    public Optional<Template> peekById(Long id) {
+        lock.lock();
+        try {
+            CachedTemplate cached = entries.get(id);
+            return cached != null ? Optional.of(cached.template) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Template> peekByName(String name) {
+        lock.lock();
+        try {
+            Long id = idsByName.get(normalizeName(name));
+            CachedTemplate cached = id != null ? entries.get(id) : null;
+            return cached != null ? Optional.of(cached.template) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Long id) {
+        lock.lock();
+        try {
+            generation++;
+            CachedTemplate removed = entries.remove(id);
+            if (removed != null) {
+                unlink(removed);
+                invalidations.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            idsByName.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (event.getType() != TemplateChangedEvent.Type.CREATED) {
+            invalidate(event.getId());
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            long hitCount = hits.get();
+            long missCount = misses.get();
+            long requests = hitCount + missCount;
+            return new Stats(hitCount, missCount, requests == 0 ? 0 : (double) hitCount / requests,
+                    evictions.get(), invalidations.get(), entries.size(), weight, maxEntries, maxWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Template put(Template loaded, long loadGeneration) {
+        Template copy = detachedCopy(loaded);
+        CachedTemplate cached = new CachedTemplate(copy, weigh(copy));
+        if (cached.weight > maxWeight) {
+            return copy;
+        }
+        lock.lock();
+        try {
+            if (generation != loadGeneration) {
+                // An invalidation happened while loading; the loaded value may be stale
+                return copy;
+            }
+            CachedTemplate previous = entries.put(copy.getId(), cached);
+            if (previous != null) {
+                unlink(previous);
+            }
+            idsByName.put(normalizeName(copy.getName()), copy.getId());
+            weight += cached.weight;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+        return copy;
+    }
+
+    private void evict() {
+        Iterator<CachedTemplate> it = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            CachedTemplate eldest = it.next();
+            it.remove();
+            unlink(eldest);
+            evictions.incrementAndGet();
+            logger.debug("Evicted template {} from cache", eldest.template.getId());
+        }
+    }
+
+    private void unlink(CachedTemplate removed) {
+        weight -= removed.weight;
+        idsByName.remove(normalizeName(removed.template.getName()), removed.template.getId());
+    }
+
+    /**
+     * Compressed bytes plus the decompressed content, which is memoized on the cached copy
+     */
+    private static long weigh(Template template) {
+        byte[] gzip = template.getContentGzip();
+        String content = template.getContent();
+        return ENTRY_OVERHEAD + (gzip != null ? gzip.length : 0) + (content != null ? content.length() : 0);
+    }
+
+    private static Template detachedCopy(Template template) {
+        return Template.builder()
+                .id(template.getId())
+                .name(template.getName())
+                .displayName(template.getDisplayName())
+                .description(template.getDescription())
+                .filePath(template.getFilePath())
+                .contentGzip(template.getContentGzip())
+                .contentHash(template.getContentHash())
+                .title(template.getTitle())
+                .slideCount(template.getSlideCount())
+                .theme(template.getTheme())
+                .isActive(template.getIsActive())
+                .createdAt(template.getCreatedAt())
+                .updatedAt(template.getUpdatedAt())
+                .version(template.getVersion())
+                .build();
+    }
+
+    private record CachedTemplate(Template template, long weight) {}
+
+    public record Stats(long hits, long misses, double hitRate, long evictions, long invalidations,
+                        int size, long weight, int maxEntries, long maxWeight) {}
+}
@@ -0,0 +1,164 @@
+package com.innedu.slide.cluster;
+
+import com.innedu.slide.config.BackgroundThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mutual exclusion across instances for work that must not run on two of them at once, such as
+ * draining the file outbox or syncing a changed file. Locks are leases on a row of
+ * {@code cluster_lock}, taken and released in their own short transactions, so no connection is
+ * held while the work runs. While it runs the lease is renewed every third of
+ * {@code app.cluster.lock-lease-ms}, so long work such as a full import keeps the lock; a lease
+ * left by a crashed instance, or one cut off from the database, expires after that time.
+ *
+ * <p>Outside clustered mode the work simply runs.
+ */
+@Component
+public class ClusterLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterLock.class);
+
+    public static final String TEMPLATE_FILES = "template-files";
+    public static final String TEMPLATE_SYNC = "template-sync";
+
+    private static final long RETRY_MILLIS = 100;
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private final ClusterNode node;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final long leaseMillis;
+    private final ScheduledExecutorService renewals;
+
+    public ClusterLock(ClusterNode node,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       BackgroundThreads backgroundThreads,
+                       @Value("${app.cluster.lock-lease-ms:120000}") long leaseMillis) {
+        this.node = node;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseMillis = leaseMillis;
+        this.renewals = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("cluster-lock"));
+    }
+
+    /**
+     * Run the action holding the lock, waiting for it up to twice the lease
+     */
+    public <T, E extends Exception> T call(String name, Action<T, E> action) throws E {
+        if (!node.isEnabled()) {
+            return action.run();
+        }
+        String holder = holder();
+        long deadline = System.currentTimeMillis() + 2 * leaseMillis;
+        while (!acquire(name, holder)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Timed out waiting for cluster lock " + name);
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for cluster lock " + name, e);
+            }
+        }
+        return runHolding(name, holder, action);
+    }
+
+    /**
+     * Run the action if the lock is free; returns false, without running it, if another holder has it
+     */
+    public <E extends Exception> boolean tryRun(String name, Action<?, E> action) throws E {
+        if (!node.isEnabled()) {
+            action.run();
+            return true;
+        }
+        String holder = holder();
+        if (!acquire(name, holder)) {
+            return false;
+        }
+        runHolding(name, holder, action);
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewals.shutdownNow();
+    }
+
+    private <T, E extends Exception> T runHolding(String name, String holder, Action<T, E> action) throws E {
+        long interval = Math.max(1, leaseMillis / 3);
+        ScheduledFuture<?> renewal;
+        try {
+            renewal = renewals.scheduleWithFixedDelay(() -> renew(name, holder), interval, interval, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the work is short or gets cut off anyway
+            renewal = null;
+        }
+        try {
+            return action.run();
+        } finally {
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            release(name, holder);
+        }
+    }
+
+    private String holder() {
+        return node.getId() + "/" + UUID.randomUUID();
+    }
+
+    private boolean acquire(String name, String holder) {
+        Integer updated = ownTransaction.execute(status -> jdbcTemplate.update(
+                "UPDATE cluster_lock SET holder = ?, expires_at = DATEADD(MILLISECOND, ?, LOCALTIMESTAMP) "
+                        + "WHERE name = ? AND (holder IS NULL OR expires_at < LOCALTIMESTAMP)",
+                holder, leaseMillis, name));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * Extend a held lease; a lease found taken over stops its renewals
+     */
+    private void renew(String name, String holder) {
+        Integer updated;
+        try {
+            updated = ownTransaction.execute(status -> jdbcTemplate.update(
+                    "UPDATE cluster_lock SET expires_at = DATEADD(MILLISECOND, ?, LOCALTIMESTAMP) WHERE name = ? AND holder = ?",
+                    leaseMillis, name, holder));
+        } catch (RuntimeException e) {
+            logger.warn("Could not renew cluster lock {}, retrying: {}", name, e.getMessage());
+            return;
+        }
+        if (updated == null || updated == 0) {
+            logger.error("Cluster lock {} expired before it was renewed and may be held elsewhere", name);
+            throw new IllegalStateException("Lost cluster lock " + name);
+        }
+    }
+
+    private void release(String name, String holder) {
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE cluster_lock SET holder = NULL, expires_at = NULL WHERE name = ? AND holder = ?",
+                name, holder));
+    }
+}
@@ -0,0 +1,40 @@
+package com.innedu.slide.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * This instance's place in a cluster. With {@code app.cluster.enabled=true} several instances
+ * share one database and one templates directory, and keep their in-memory state in step through
+ * {@link TemplateChangeLog}; {@code app.cluster.node-id} names the instance in the change log and
+ * in lock leases, and defaults to a random id per start.
+ */
+@Component
+public class ClusterNode {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final boolean enabled;
+    private final String id;
+
+    public ClusterNode(@Value("${app.cluster.enabled:false}") boolean enabled,
+                       @Value("${app.cluster.node-id:}") String nodeId) {
+        this.enabled = enabled;
+        this.id = nodeId.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        if (enabled) {
+            logger.info("Clustered mode, node id {}", id);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,274 @@
+package com.innedu.slide.cluster;
+
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
+import com.innedu.slide.repository.TemplateRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-memory state of clustered instances (template cache, rendered decks, search index,
+ * change feed) in step through the {@code template_change_log} table, without a message broker.
+ *
+ * <p>Every local {@link TemplateChangedEvent} is appended to the log in the transaction that made
+ * the change, so a row exists exactly when the change committed. Each instance polls the log every
+ * {@code app.cluster.poll-interval-ms} and publishes the other instances' changes locally as
+ * remote events, loading the template's current state; an instance therefore serves a change made
+ * elsewhere within about one poll interval.
+ *
+ * <p>Ids come from an identity column, so they follow insert order, but two transactions can
+ * commit out of order. Rows are applied as soon as they are seen; the poll position only moves
+ * past a missing id once it has been missing for {@code app.cluster.gap-timeout-ms}, after which
+ * it is taken for a rolled-back insert. Each poll looks the missing ids up again and reads on from
+ * the newest row seen, so a gap holds up nothing but itself. Rows older than
+ * {@code app.cluster.change-log-retention-ms} are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class TemplateChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateChangeLog.class);
+
+    private static final int POLL_BATCH_SIZE = 500;
+    private static final long PRUNE_INTERVAL_MILLIS = 60_000;
+
+    private static final String INSERT = "INSERT INTO template_change_log "
+            + "(template_id, template_name, change_type, version, changed_fields, node_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT id, template_id, template_name, change_type, version, "
+            + "changed_fields, node_id FROM template_change_log ";
+    private static final String SELECT_AFTER = SELECT + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(rs.getLong("id"),
+            rs.getLong("template_id"), rs.getString("template_name"),
+            TemplateChangedEvent.Type.valueOf(rs.getString("change_type")),
+            rs.getObject("version", Long.class), rs.getString("changed_fields"), rs.getString("node_id"));
+
+    private final ClusterNode node;
+    private final JdbcTemplate jdbcTemplate;
+    private final TemplateRepository templateRepository;
+    private final TransactionTemplate readTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long gapTimeoutMillis;
+    private final long retentionMillis;
+    private final ScheduledExecutorService executor;
+
+    // Poll state, only touched by the poller thread: every id up to the position has been applied
+    // or given up on, the set holds the applied ids above it
+    private long position;
+    private final TreeSet<Long> appliedAbove = new TreeSet<>();
+    private long gapSince;
+    private long lastPrune;
+
+    public TemplateChangeLog(ClusterNode node,
+                             JdbcTemplate jdbcTemplate,
+                             TemplateRepository templateRepository,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             BackgroundThreads backgroundThreads,
+                             @Value("${app.cluster.poll-interval-ms:500}") long pollIntervalMillis,
+                             @Value("${app.cluster.gap-timeout-ms:30000}") long gapTimeoutMillis,
+                             @Value("${app.cluster.change-log-retention-ms:3600000}") long retentionMillis) {
+        this.node = node;
+        this.jdbcTemplate = jdbcTemplate;
+        this.templateRepository = templateRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retentionMillis = retentionMillis;
+
+        // Changes logged before this instance loads its state need not be applied
+        Long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM template_change_log", Long.class);
+        this.position = last != null ? last : 0;
+        this.executor = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("template-change-log"));
+        executor.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Log a local change. Rows of one transaction are inserted as one batch just before it commits.
+     */
+    @EventListener
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Object[] row = {event.getId(), event.getName(), event.getType().name(), event.getVersion(),
+                String.join(",", event.getChangedFields()), node.getId()};
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INSERT, row);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Object[]> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT, rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TemplateChangeLog.this);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+
+    private void poll() {
+        try {
+            // Ids missing so far may have committed since
+            List<Long> missing = missingIds();
+            if (!missing.isEmpty()) {
+                String placeholders = String.join(",", Collections.nCopies(missing.size(), "?"));
+                applyAll(jdbcTemplate.query(SELECT + "WHERE id IN (" + placeholders + ")", ENTRY_MAPPER, missing.toArray()));
+            }
+            // Then everything after the newest row seen
+            long after = appliedAbove.isEmpty() ? position : appliedAbove.last();
+            List<Entry> entries;
+            do {
+                entries = jdbcTemplate.query(SELECT_AFTER, ENTRY_MAPPER, after, POLL_BATCH_SIZE);
+                applyAll(entries);
+                if (!entries.isEmpty()) {
+                    after = entries.get(entries.size() - 1).id();
+                }
+                advance();
+            } while (entries.size() == POLL_BATCH_SIZE);
+            prune();
+        } catch (RuntimeException e) {
+            logger.warn("Polling the template change log failed: {}", e.getMessage());
+        }
+    }
+
+    private void applyAll(List<Entry> entries) {
+        for (Entry entry : entries) {
+            if (entry.id() > position && !appliedAbove.contains(entry.id())) {
+                apply(entry);
+                appliedAbove.add(entry.id());
+            }
+        }
+    }
+
+    /**
+     * Ids between the position and the newest row seen that have not been applied, oldest first
+     */
+    private List<Long> missingIds() {
+        List<Long> missing = new ArrayList<>();
+        if (appliedAbove.isEmpty()) {
+            return missing;
+        }
+        for (long id = position + 1; id < appliedAbove.last() && missing.size() < POLL_BATCH_SIZE; id++) {
+            if (!appliedAbove.contains(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Move the position over applied ids, and over a missing id once it is taken for a rollback
+     */
+    private void advance() {
+        while (!appliedAbove.isEmpty()) {
+            if (appliedAbove.first() == position + 1) {
+                position = appliedAbove.pollFirst();
+                gapSince = 0;
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            if (gapSince == 0) {
+                gapSince = now;
+            }
+            if (now - gapSince < gapTimeoutMillis) {
+                return;
+            }
+            logger.debug("Change log ids {} to {} never committed, skipping", position + 1, appliedAbove.first() - 1);
+            position = appliedAbove.first() - 1;
+            gapSince = 0;
+        }
+    }
+
+    /**
+     * Publish another instance's change locally. Database errors propagate, so the entry is
+     * retried on the next poll; a failing listener only loses this entry.
+     */
+    private void apply(Entry entry) {
+        if (node.getId().equals(entry.nodeId())) {
+            return;
+        }
+        List<String> changedFields = entry.changedFields().isEmpty()
+                ? List.of() : Arrays.asList(entry.changedFields().split(","));
+        TemplateChangedEvent event;
+        if (entry.type() == TemplateChangedEvent.Type.DELETED) {
+            Template deleted = new Template();
+            deleted.setId(entry.templateId());
+            deleted.setName(entry.templateName());
+            deleted.setVersion(entry.version());
+            event = TemplateChangedEvent.remote(entry.type(), deleted, changedFields);
+        } else {
+            // The event is built in the transaction: it reads the lazily loaded content
+            boolean withContent = entry.type() == TemplateChangedEvent.Type.CREATED || changedFields.contains("content");
+            event = readTransaction.execute(status ->
+                    (withContent ? templateRepository.findWithContentById(entry.templateId())
+                            : templateRepository.findById(entry.templateId()))
+                            .map(template -> TemplateChangedEvent.remote(entry.type(), template, changedFields))
+                            .orElse(null));
+        }
+        // Null when deleted since; its own entry follows
+        if (event != null) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply change {} of template {} from node {}",
+                        entry.type(), entry.templateId(), entry.nodeId(), e);
+            }
+        }
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPrune = now;
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM template_change_log WHERE created_at < DATEADD(MILLISECOND, ?, LOCALTIMESTAMP)",
+                -retentionMillis);
+        if (deleted > 0) {
+            logger.debug("Pruned {} template change log row(s)", deleted);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Entry(long id, long templateId, String templateName, TemplateChangedEvent.Type type,
+                         Long version, String changedFields, String nodeId) {}
+}
@@ -0,0 +1,49 @@
+package com.innedu.slide.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own background workers, following the same threading
+ * mode as the servlet container and the task executor.
+ *
+ * <p>With {@code spring.threads.virtual.enabled=true} on Java 21 or later, Spring Boot runs request
+ * handling and {@code applicationTaskExecutor} on virtual threads, and these workers get virtual
+ * threads too. Otherwise they are daemon platform threads.
+ */
+@Component
+public class BackgroundThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundThreads.class);
+
+    private final boolean virtual;
+
+    public BackgroundThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        logger.info("Using {} threads for request handling and background work", virtual ? "virtual" : "platform");
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * A factory for a worker's threads; {@code name} is the thread name
+     */
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(name).getVirtualThreadFactory();
+        }
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 import org.springframework.boot.ansi.AnsiColor;
@@ -17,6 +18,10 @@ import org.springframework.boot.ansi.AnsiStyle;
  * Log filter to prevent attackers from forging log entries by submitting input containing CRLF
  * characters. CRLF characters are replaced with a red colored _ character.
  *
+ * <p>This runs for every log line, so the common case of a message without CR, LF or TAB is a
+ * single scan that returns the input as is; markers and the logger name are only looked at when
+ * something would be replaced.
+ *
  * @see <a href="https://owasp.org/www-community/attacks/Log_Injection">Log Forging Description</a>
  * @see <a href="https://github.com/fpt/generator-fpt/issues/14949">JHipster issue</a>
  */
@@ -31,6 +36,9 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
   };
   private static final Map<String, AnsiElement> ELEMENTS;
 
+  /** Upper bound on remembered logger names, in case some library names loggers dynamically */
+  private static final int SAFE_LOGGER_CACHE_SIZE = 4096;
+
   static {
     Map<String, AnsiElement> ansiElements = new HashMap<>();
     ansiElements.put("faint", AnsiStyle.FAINT);
@@ -43,21 +51,60 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
     ELEMENTS = Collections.unmodifiableMap(ansiElements);
   }
 
+  private final Map<String, Boolean> safeLoggers = new ConcurrentHashMap<>();
+
   @Override
   protected String transform(ILoggingEvent event, String in) {
-    AnsiElement element = ELEMENTS.get(getFirstOption());
-    List<Marker> markers = event.getMarkerList();
-    if ((markers != null && !markers.isEmpty() && markers.get(0).contains(CRLF_SAFE_MARKER))
-        || isLoggerSafe(event)) {
+    int first = indexOfCrlfOrTab(in);
+    if (first < 0 || isMarkedSafe(event) || isLoggerSafe(event)) {
       return in;
     }
+    AnsiElement element = ELEMENTS.get(getFirstOption());
     String replacement = element == null ? "_" : toAnsiString("_", element);
-    return in.replaceAll("[\n\r\t]", replacement);
+    StringBuilder out = new StringBuilder(in.length() + 8 * replacement.length());
+    out.append(in, 0, first);
+    for (int i = first; i < in.length(); i++) {
+      char c = in.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\t') {
+        out.append(replacement);
+      } else {
+        out.append(c);
+      }
+    }
+    return out.toString();
   }
 
+  private static int indexOfCrlfOrTab(String in) {
+    for (int i = 0; i < in.length(); i++) {
+      char c = in.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\t') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isMarkedSafe(ILoggingEvent event) {
+    List<Marker> markers = event.getMarkerList();
+    return markers != null && !markers.isEmpty() && markers.get(0).contains(CRLF_SAFE_MARKER);
+  }
+
+  /** Whether the logger is under one of {@link #SAFE_LOGS}, remembered per logger name */
   protected boolean isLoggerSafe(ILoggingEvent event) {
+    String loggerName = event.getLoggerName();
+    Boolean safe = safeLoggers.get(loggerName);
+    if (safe == null) {
+      safe = startsWithSafeLog(loggerName);
+      if (safeLoggers.size() < SAFE_LOGGER_CACHE_SIZE) {
+        safeLoggers.put(loggerName, safe);
+      }
+    }
+    return safe;
+  }
+
+  private static boolean startsWithSafeLog(String loggerName) {
     for (String safeLogger : SAFE_LOGS) {
-      if (event.getLoggerName().startsWith(safeLogger)) {
+      if (loggerName.startsWith(safeLogger)) {
         return true;
       }
     }
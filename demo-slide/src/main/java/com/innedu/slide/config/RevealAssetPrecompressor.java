@@ -0,0 +1,128 @@
+package com.innedu.slide.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a gzip sibling ({@code reveal.js.gz} next to {@code reveal.js}) for each compressible
+ * reveal.js asset in dist and plugin that lacks an up-to-date one, before the server starts. The
+ * /reveal/** handler serves these to clients that accept gzip. Brotli ({@code .br}) siblings made
+ * by other tools are served as well, but are not generated here: the JDK has no Brotli encoder.
+ */
+@Component
+public class RevealAssetPrecompressor implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevealAssetPrecompressor.class);
+
+    private static final List<String> ASSET_DIRS = List.of("dist", "plugin");
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "mjs", "json", "svg", "ttf", "eot");
+    /** Smaller files fit a packet either way */
+    private static final long MIN_SIZE = 1024;
+
+    private final Path revealPath;
+    private final boolean enabled;
+
+    public RevealAssetPrecompressor(@Value("${app.reveal.path:../reveal.js}") String revealPath,
+                                    @Value("${app.reveal.precompress:true}") boolean enabled) {
+        this.revealPath = Paths.get(revealPath);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int written = 0;
+        long originalBytes = 0;
+        long compressedBytes = 0;
+        for (String dir : ASSET_DIRS) {
+            Path root = revealPath.resolve(dir);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            List<Path> pending;
+            try (Stream<Path> files = Files.walk(root)) {
+                pending = files.filter(this::needsCompression).toList();
+            } catch (IOException e) {
+                logger.warn("Could not scan {} for precompression: {}", root, e.getMessage());
+                continue;
+            }
+            for (Path file : pending) {
+                try {
+                    long compressed = compress(file);
+                    written++;
+                    originalBytes += Files.size(file);
+                    compressedBytes += compressed;
+                } catch (IOException e) {
+                    logger.warn("Could not precompress {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (written > 0) {
+            logger.info("Precompressed {} reveal.js assets ({} KB -> {} KB) in {} ms", written,
+                    originalBytes / 1024, compressedBytes / 1024, System.currentTimeMillis() - start);
+        }
+    }
+
+    private boolean needsCompression(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || !COMPRESSIBLE.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        try {
+            if (!Files.isRegularFile(file) || Files.size(file) < MIN_SIZE) {
+                return false;
+            }
+            Path gzip = gzipSibling(file);
+            return !Files.exists(gzip)
+                    || Files.getLastModifiedTime(gzip).compareTo(Files.getLastModifiedTime(file)) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compress next to the original through a temporary file, so a request never sees a partial
+     * sibling. Returns the compressed size.
+     */
+    private static long compress(Path file) throws IOException {
+        Path gzip = gzipSibling(file);
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                Files.copy(file, out);
+            }
+            Files.move(tmp, gzip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(gzip);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Path gzipSibling(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+}
@@ -0,0 +1,179 @@
+package com.innedu.slide.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionStrategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Part of the /reveal/** chain behind Spring's {@code CachingResourceResolver}, which keeps the
+ * resolved resource per path and accepted encoding. The size and modification time of each
+ * resolved file, and of its gzip or brotli sibling, are read once here, so serving a cached asset
+ * makes no filesystem calls besides opening it.
+ *
+ * <p>Cache-Control is decided here too. A URL is cached for a year as immutable only when its
+ * version matches the content hash of the file it resolved to; any other URL, including a plain
+ * file name that merely contains a hyphen, is revalidated with Last-Modified on every use.
+ */
+class RevealAssetResolver extends AbstractResourceResolver {
+
+    private static final String IMMUTABLE =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    private final VersionStrategy versionStrategy;
+
+    RevealAssetResolver(VersionStrategy versionStrategy) {
+        this.versionStrategy = versionStrategy;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null) {
+            return null;
+        }
+        String version = versionStrategy.extractVersion(requestPath);
+        boolean fingerprinted = version != null && version.equals(versionStrategy.getResourceVersion(resource));
+        try {
+            return new IndexedResource(resource, fingerprinted ? IMMUTABLE : REVALIDATE);
+        } catch (IOException e) {
+            logger.debug("Not indexing " + resource + ": " + e.getMessage());
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * A resolved asset with its size and modification time taken at resolution and its
+     * Cache-Control, keeping the headers (the ETag of a versioned path) of the resource it wraps
+     */
+    static final class IndexedResource extends AbstractResource implements HttpResource {
+        private final Resource resource;
+        private final long contentLength;
+        private final long lastModified;
+        private final String cacheControl;
+
+        IndexedResource(Resource resource, String cacheControl) throws IOException {
+            this.resource = resource;
+            this.contentLength = resource.contentLength();
+            this.lastModified = resource.lastModified();
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public boolean isReadable() {
+            return true;
+        }
+
+        @Override
+        public boolean isFile() {
+            return resource.isFile();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return resource.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return resource.getURI();
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return resource.readableChannel();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Indexed as well: EncodedResourceResolver looks up the .gz and .br siblings this way
+         */
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            Resource relative = resource.createRelative(relativePath);
+            return relative.exists() ? new IndexedResource(relative, cacheControl) : relative;
+        }
+
+        @Override
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return resource.getDescription();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (resource instanceof HttpResource httpResource) {
+                headers.addAll(httpResource.getResponseHeaders());
+            }
+            headers.setCacheControl(cacheControl);
+            return headers;
+        }
+
+        /**
+         * Spring's resources are equal by description, which does not tell a versioned path from
+         * the plain one; the transformer cache must keep them apart
+         */
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof IndexedResource indexed
+                    && resource.equals(indexed.resource)
+                    && getResponseHeaders().equals(indexed.getResponseHeaders()));
+        }
+
+        @Override
+        public int hashCode() {
+            return resource.hashCode();
+        }
+    }
+}
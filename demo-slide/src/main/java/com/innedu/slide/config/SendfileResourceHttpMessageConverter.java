@@ -0,0 +1,53 @@
+package com.innedu.slide.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+/**
+ * Hands static files of {@value #MIN_SIZE} bytes or more to Tomcat's sendfile, so the kernel
+ * copies them from the page cache to the socket instead of the servlet reading them through a
+ * heap buffer. This is what Tomcat's DefaultServlet does; smaller files, non-file resources and
+ * connectors without sendfile take the regular copy.
+ *
+ * <p>Bytes sent this way bypass the servlet output stream, so they are not counted in
+ * {@code slide.http.response.size}.
+ */
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    /** DefaultServlet's default sendfileSize */
+    static final long MIN_SIZE = 48 * 1024;
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        if (!sendfile(resource)) {
+            super.writeContent(resource, outputMessage);
+        }
+    }
+
+    private static boolean sendfile(Resource resource) throws IOException {
+        if (!resource.isFile()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        long length = resource.contentLength();
+        if (length < MIN_SIZE || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME, resource.getFile().getCanonicalPath());
+        request.setAttribute(SENDFILE_START, 0L);
+        request.setAttribute(SENDFILE_END, length);
+        return true;
+    }
+}
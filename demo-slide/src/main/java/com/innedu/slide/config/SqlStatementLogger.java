@@ -0,0 +1,85 @@
+package com.innedu.slide.config;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs executed SQL with bound values to the {@code p6spy} logger, in place of p6spy's own
+ * per-statement logging. At most {@code app.logging.sql.max-per-second} statements are logged per
+ * second; the number left out is reported with the next logged one. Statements taking at least
+ * {@code app.logging.sql.slow-ms} are always logged, at WARN.
+ *
+ * <p>The statement text is only built for statements that are logged, and nothing is done when
+ * the {@code p6spy} logger is below INFO.
+ */
+@Component
+public class SqlStatementLogger extends SimpleJdbcEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger("p6spy");
+
+    private final int maxPerSecond;
+    private final long slowNanos;
+
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public SqlStatementLogger(@Value("${app.logging.sql.max-per-second:20}") int maxPerSecond,
+                              @Value("${app.logging.sql.slow-ms:500}") long slowMillis) {
+        this.maxPerSecond = maxPerSecond;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (timeElapsedNanos >= slowNanos) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("slow statement | took {} ms | connection {} | {}",
+                        TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos),
+                        statementInformation.getConnectionInformation().getConnectionId(),
+                        statementInformation.getSqlWithValues());
+            }
+            return;
+        }
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        if (!tryAcquire(System.nanoTime())) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long skipped = suppressed.getAndSet(0);
+        if (skipped > 0) {
+            logger.info("{} statements not logged (app.logging.sql.max-per-second={})", skipped, maxPerSecond);
+        }
+        logger.info("took {} ms | connection {} | {}",
+                TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos),
+                statementInformation.getConnectionInformation().getConnectionId(),
+                statementInformation.getSqlWithValues());
+    }
+
+    /**
+     * Take one of this second's log slots. Races at a window boundary can let a few extra
+     * statements through, which is fine for logging.
+     */
+    private boolean tryAcquire(long nowNanos) {
+        if (maxPerSecond <= 0) {
+            return false;
+        }
+        long current = nowNanos / TimeUnit.SECONDS.toNanos(1);
+        long previous = window.get();
+        if (current != previous && window.compareAndSet(previous, current)) {
+            loggedInWindow.set(0);
+        }
+        return loggedInWindow.incrementAndGet() <= maxPerSecond;
+    }
+}
@@ -1,5 +1,7 @@
 package com.innedu.slide.config;
 
+import com.innedu.slide.metrics.TemplateMetrics;
+import com.innedu.slide.search.TemplateSearchIndex;
 import com.innedu.slide.service.TemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,16 +15,24 @@ public class TemplateInitializer implements ApplicationRunner {
     private static final Logger logger = LoggerFactory.getLogger(TemplateInitializer.class);
     
     private final TemplateService templateService;
+    private final TemplateSearchIndex searchIndex;
+    private final TemplateMetrics metrics;
     
-    public TemplateInitializer(TemplateService templateService) {
+    public TemplateInitializer(TemplateService templateService, TemplateSearchIndex searchIndex,
+                               TemplateMetrics metrics) {
         this.templateService = templateService;
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
     }
     
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        // Index what is already stored; templates imported below are indexed as they are created
+        searchIndex.rebuild();
         logger.info("Initializing templates from file system...");
         try {
-            templateService.initializeTemplatesFromFileSystem();
+            metrics.recordImport("startup", templateService.initializeTemplatesFromFileSystem());
+            templateService.backfillDeckStructure();
             logger.info("Templates initialized successfully");
         } catch (Exception e) {
             logger.error("Failed to initialize templates", e);
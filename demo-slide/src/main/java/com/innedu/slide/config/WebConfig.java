@@ -1,15 +1,73 @@
 package com.innedu.slide.config;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final String revealPath;
+    private final ContentVersionStrategy versionStrategy = new ContentVersionStrategy();
+
+    public WebConfig(@Value("${app.reveal.path:../reveal.js}") String revealPath) {
+        this.revealPath = revealPath;
+    }
+
+    /**
+     * reveal.js under /reveal/**. Decks rendered by DeckRenderer link its assets by content-hashed
+     * URL (reveal-&lt;md5&gt;.js), which {@link RevealAssetResolver} serves as immutable once the hash
+     * matches the file, and every other URL as revalidated; gzip and brotli siblings are
+     * served when accepted. Resolution and file metadata are cached in memory, so changes to
+     * dist and plugin need a restart.
+     *
+     * <p>Deck files and their images under /reveal/templates/** change while running; they are
+     * resolved on every request and always revalidated.
+     */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = "file:" + (revealPath.endsWith("/") ? revealPath : revealPath + "/");
+        registry.addResourceHandler("/reveal/templates/**")
+            .addResourceLocations(location + "templates/")
+            .setCacheControl(CacheControl.noCache());
+
         registry.addResourceHandler("/reveal/**")
-            .addResourceLocations("file:../reveal.js/");
+            .addResourceLocations(location)
+            .setOptimizeLocations(true)
+            .resourceChain(true)
+            .addResolver(new EncodedResourceResolver())
+            .addResolver(new RevealAssetResolver(versionStrategy))
+            .addResolver(new VersionResourceResolver().addVersionStrategy(versionStrategy, "/**"));
+    }
+
+    /**
+     * Static resources are written with {@link SendfileResourceHttpMessageConverter}. The resource
+     * handler registry has no hook for the converter, so it is set on the registered handlers.
+     */
+    @Bean
+    static BeanPostProcessor sendfileResourceHandlers() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof SimpleUrlHandlerMapping mapping) {
+                    for (Object handler : mapping.getHandlerMap().values()) {
+                        if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                            resourceHandler.setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter());
+                        }
+                    }
+                }
+                return bean;
+            }
+        };
     }
 }
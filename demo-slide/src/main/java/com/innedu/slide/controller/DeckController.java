@@ -0,0 +1,131 @@
+package com.innedu.slide.controller;
+
+import com.innedu.slide.cache.RenderedDeckCache;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.render.DeckRenderer;
+import com.innedu.slide.render.OfflineDeckRenderer;
+import com.innedu.slide.repository.TemplateValidators;
+import com.innedu.slide.service.TemplateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/decks")
+@Tag(name = "decks", description = "Rendered reveal.js decks")
+public class DeckController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeckController.class);
+
+    private final TemplateService templateService;
+    private final DeckRenderer deckRenderer;
+    private final OfflineDeckRenderer offlineDeckRenderer;
+
+    public DeckController(TemplateService templateService, DeckRenderer deckRenderer,
+                          OfflineDeckRenderer offlineDeckRenderer) {
+        this.templateService = templateService;
+        this.deckRenderer = deckRenderer;
+        this.offlineDeckRenderer = offlineDeckRenderer;
+    }
+
+    /**
+     * Render an active template as a reveal.js page, optionally with another theme
+     */
+    @GetMapping("/{name}")
+    @Operation(
+        summary = "Render a deck",
+        description = "The template's slides in reveal.js scaffolding, ready to present. Pages are cached per "
+            + "template version and theme; supports If-None-Match.",
+        method = "GET"
+    )
+    public ResponseEntity<byte[]> renderDeck(@PathVariable String name,
+                                             @RequestParam(required = false) String theme,
+                                             WebRequest request) {
+        if (theme != null && !DeckRenderer.THEMES.contains(theme)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            TemplateValidators validators = templateService.getTemplateValidatorsByName(name);
+            // Any edit, including a theme change, bumps the version; the assets tag covers reveal.js upgrades
+            String etag = "\"deck-" + validators.getId() + "-" + validators.getVersion()
+                    + (theme != null ? "-" + theme : "") + "-" + deckRenderer.assetsVersion() + "\"";
+            if (request.checkNotModified(etag)) {
+                return null; // 304, status and ETag already set
+            }
+            Template template = templateService.getTemplateByName(name);
+            if (!Boolean.TRUE.equals(template.getIsActive())) {
+                return ResponseEntity.notFound().build();
+            }
+            byte[] page = deckRenderer.render(template, DeckRenderer.resolveTheme(theme, template));
+            return ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .body(page);
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error rendering deck: " + name, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Download an active template as a single self-contained HTML file
+     */
+    @GetMapping("/{name}/offline")
+    @Operation(
+        summary = "Download a deck for offline use",
+        description = "One HTML file with reveal.js, the theme and its fonts, and the deck's local images inlined, "
+            + "so it opens without a connection.",
+        method = "GET"
+    )
+    public ResponseEntity<byte[]> downloadOfflineDeck(@PathVariable String name,
+                                                      @RequestParam(required = false) String theme) {
+        if (theme != null && !DeckRenderer.THEMES.contains(theme)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Template template = templateService.getTemplateByName(name);
+            if (!Boolean.TRUE.equals(template.getIsActive())) {
+                return ResponseEntity.notFound().build();
+            }
+            byte[] page = offlineDeckRenderer.render(template, DeckRenderer.resolveTheme(theme, template));
+            return ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(template.getFilePath()).build().toString())
+                    .body(page);
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error rendering offline deck: " + name, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Rendered deck cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @Operation(
+        summary = "Rendered deck cache statistics",
+        description = "Hit, miss and eviction counters plus current size and weight of the rendered page cache.",
+        method = "GET"
+    )
+    public ResponseEntity<RenderedDeckCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(deckRenderer.cacheStats());
+    }
+}
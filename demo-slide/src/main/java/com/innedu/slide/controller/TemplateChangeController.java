@@ -0,0 +1,57 @@
+package com.innedu.slide.controller;
+
+import com.innedu.slide.service.TemplateChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/templates/changes")
+@Tag(name = "changes", description = "Live template change feed")
+@CrossOrigin(origins = "*")
+public class TemplateChangeController {
+
+    private final TemplateChangeFeed changeFeed;
+
+    public TemplateChangeController(TemplateChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * Subscribe to template changes as Server-Sent Events
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream template changes",
+        description = "Server-Sent Events: a 'change' event per committed create, update or delete, with the "
+            + "template id, name, new version, changed fields and new metadata values (never the content). "
+            + "Reconnecting with Last-Event-ID (or lastEventId) replays missed changes; a 'reset' event "
+            + "means they are no longer available and the catalog should be reloaded.",
+        method = "GET"
+    )
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                    @RequestParam(required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    /**
+     * Change feed statistics
+     */
+    @GetMapping("/stats")
+    @Operation(
+        summary = "Change feed statistics",
+        description = "Open subscriptions, last sequence number, resets sent and subscribers disconnected for falling behind.",
+        method = "GET"
+    )
+    public ResponseEntity<TemplateChangeFeed.Stats> getStats() {
+        return ResponseEntity.ok(changeFeed.stats());
+    }
+}
@@ -1,26 +1,46 @@
 package com.innedu.slide.controller;
 
+import com.innedu.slide.cache.TemplateCache;
+import com.innedu.slide.dto.TemplateBatchRequest;
 import com.innedu.slide.dto.TemplateCreateRequest;
+import com.innedu.slide.dto.TemplateImportReport;
+import com.innedu.slide.dto.TemplatePatchRequest;
 import com.innedu.slide.dto.TemplateResponse;
+import com.innedu.slide.dto.TemplateSearchResponse;
+import com.innedu.slide.dto.TemplateSliceResponse;
+import com.innedu.slide.dto.TemplateStructureResponse;
+import com.innedu.slide.dto.TemplateSummaryResponse;
 import com.innedu.slide.dto.TemplateUpdateRequest;
 import com.innedu.slide.entity.Template;
 import com.innedu.slide.exception.TemplateAlreadyExistsException;
 import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.metrics.TemplateMetrics;
+import com.innedu.slide.repository.TemplateSortKey;
+import com.innedu.slide.repository.TemplateSummary;
+import com.innedu.slide.repository.TemplateValidators;
+import com.innedu.slide.search.TemplateSearchIndex;
+import com.innedu.slide.service.TemplateCursor;
+import com.innedu.slide.service.TemplateExportService;
 import com.innedu.slide.service.TemplateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,14 +54,21 @@ public class TemplateController {
     
     private static final Logger logger = LoggerFactory.getLogger(TemplateController.class);
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TemplateService templateService;
+    private final TemplateExportService templateExportService;
+    private final TemplateMetrics metrics;
     
-    public TemplateController(TemplateService templateService) {
+    public TemplateController(TemplateService templateService, TemplateExportService templateExportService,
+                              TemplateMetrics metrics) {
         this.templateService = templateService;
+        this.templateExportService = templateExportService;
+        this.metrics = metrics;
     }
     
     /**
-     * Get all templates
+     * Get all templates (summaries only; use the single-template endpoints for content)
      */
     @GetMapping
     @Operation(
@@ -49,11 +76,14 @@ public class TemplateController {
         description = "Fetches all templates from the system.",
         method = "GET"
     )
-    public ResponseEntity<List<TemplateResponse>> getAllTemplates() {
+    public ResponseEntity<List<TemplateSummaryResponse>> getAllTemplates(WebRequest request) {
         try {
-            List<Template> templates = templateService.getAllTemplates();
-            List<TemplateResponse> response = templates.stream()
-                    .map(TemplateResponse::from)
+            if (request.checkNotModified(templateService.getCatalogVersion().etag())) {
+                return null; // 304, status and ETag already set
+            }
+            List<TemplateSummary> templates = templateService.getAllTemplates();
+            List<TemplateSummaryResponse> response = templates.stream()
+                    .map(TemplateSummaryResponse::from)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -63,24 +93,43 @@ public class TemplateController {
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<TemplateResponse>> getAllTemplatesPaged(
-        @RequestParam(defaultValue = "0") int page,
+    @Operation(
+        summary = "List templates in slices",
+        description = "Keyset pagination: pass the returned nextCursor to get the following slice. "
+            + "Sort by id, createdAt, updatedAt, name or displayName (asc/desc); id breaks ties. "
+            + "No total count is computed.",
+        method = "GET"
+    )
+    public ResponseEntity<Object> getAllTemplatesPaged(
         @RequestParam(defaultValue = "10") int size,
-        @RequestParam(defaultValue = "id,asc") String sort) {
+        @RequestParam(defaultValue = "id,asc") String sort,
+        @RequestParam(required = false) String cursor,
+        WebRequest request) {
+        if (size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        TemplateCursor position;
         try {
-            // Parse sort string: e.g. "id,asc"
-            String[] sortParams = sort.split(",");
-            String sortField = sortParams[0];
-            Sort.Direction direction = (sortParams.length > 1 && "desc".equalsIgnoreCase(sortParams[1]))
-                ? Sort.Direction.DESC
-                : Sort.Direction.ASC;
-
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortField));
-
-            Page<Template> templates = templateService.getAllTemplatesPaged(pageable);
-            Page<TemplateResponse> response = templates.map(TemplateResponse::from);
-
-            return ResponseEntity.ok(response);
+            position = cursor != null ? TemplateCursor.decode(cursor) : parseSort(sort);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", cursor != null ? "INVALID_CURSOR" : "INVALID_SORT");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            if (request.checkNotModified(templateService.getCatalogVersion().etag())) {
+                return null; // 304, status and ETag already set
+            }
+            Window<TemplateSummary> window = templateService.getTemplatesSlice(position, size);
+            List<TemplateSummaryResponse> content = window.stream()
+                    .map(TemplateSummaryResponse::from)
+                    .collect(Collectors.toList());
+            String nextCursor = window.hasNext() && !window.isEmpty()
+                    ? position.after(window.positionAt(window.size() - 1)).encode()
+                    : null;
+            String sortDescription = position.key().property() + "," + position.direction().name().toLowerCase();
+            return ResponseEntity.ok(new TemplateSliceResponse(content, size, sortDescription, window.hasNext(), nextCursor));
         } catch (Exception e) {
             logger.error("Error fetching paged templates", e);
             return ResponseEntity.internalServerError().build();
@@ -91,11 +140,14 @@ public class TemplateController {
      * Get active templates only
      */
     @GetMapping("/active")
-    public ResponseEntity<List<TemplateResponse>> getActiveTemplates() {
+    public ResponseEntity<List<TemplateSummaryResponse>> getActiveTemplates(WebRequest request) {
         try {
-            List<Template> templates = templateService.getActiveTemplates();
-            List<TemplateResponse> response = templates.stream()
-                    .map(TemplateResponse::from)
+            if (request.checkNotModified(templateService.getCatalogVersion().etag())) {
+                return null; // 304, status and ETag already set
+            }
+            List<TemplateSummary> templates = templateService.getActiveTemplates();
+            List<TemplateSummaryResponse> response = templates.stream()
+                    .map(TemplateSummaryResponse::from)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -105,11 +157,29 @@ public class TemplateController {
     }
     
     /**
-     * Get template by ID
+     * Template cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @Operation(
+        summary = "Template cache statistics",
+        description = "Hit, miss, eviction and invalidation counters plus current size and weight of the template cache.",
+        method = "GET"
+    )
+    public ResponseEntity<TemplateCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(templateService.getCacheStats());
+    }
+    
+    /**
+     * Get template by ID. Supports If-None-Match / If-Modified-Since; a 304 is answered from
+     * metadata alone.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TemplateResponse> getTemplateById(@PathVariable Long id) {
+    public ResponseEntity<TemplateResponse> getTemplateById(@PathVariable Long id, WebRequest request) {
         try {
+            TemplateValidators validators = templateService.getTemplateValidators(id);
+            if (request.checkNotModified(validators.etag(), validators.lastModified())) {
+                return null; // 304, status and validators already set
+            }
             Template template = templateService.getTemplateById(id);
             return ResponseEntity.ok(TemplateResponse.from(template));
         } catch (TemplateNotFoundException e) {
@@ -121,11 +191,104 @@ public class TemplateController {
     }
     
     /**
-     * Get template by name
+     * Get the raw HTML content of a template. Content is stored gzip-compressed, so clients that
+     * accept gzip get the stored bytes as-is, with no per-request compression.
+     */
+    @GetMapping("/{id}/content")
+    @Operation(
+        summary = "Get template HTML",
+        description = "Raw deck HTML. Sent with Content-Encoding: gzip when the client accepts it.",
+        method = "GET"
+    )
+    public ResponseEntity<byte[]> getTemplateContent(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                     WebRequest request) {
+        try {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            TemplateValidators validators = templateService.getTemplateValidators(id);
+            // Strong validators must differ between content codings
+            String etag = gzip ? validators.etag().replaceFirst("\"$", "-gz\"") : validators.etag();
+            if (request.checkNotModified(etag, validators.lastModified())) {
+                return null; // 304, status and validators already set
+            }
+            Template template = templateService.getTemplateById(id);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(template.getContentGzip());
+            }
+            return response.body(template.getContent().getBytes(StandardCharsets.UTF_8));
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error fetching content of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Get one slide of a template (0-based, top-level sections only)
+     */
+    @GetMapping("/{id}/slides/{index}")
+    @Operation(
+        summary = "Get one slide",
+        description = "The HTML of a single top-level <section>, so clients can load slides on demand. "
+            + "Indexes are 0-based as in reveal.js; see /{id}/structure for the slide count.",
+        method = "GET"
+    )
+    public ResponseEntity<byte[]> getTemplateSlide(@PathVariable Long id, @PathVariable int index, WebRequest request) {
+        try {
+            TemplateValidators validators = templateService.getTemplateValidators(id);
+            String etag = validators.etag().replaceFirst("\"$", "-s" + index + "\"");
+            if (request.checkNotModified(etag, validators.lastModified())) {
+                return null; // 304, status and validators already set
+            }
+            return templateService.getSlide(id, index)
+                    .map(slide -> ResponseEntity.ok()
+                            .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                            .body(slide))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error fetching slide " + index + " of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get the parsed structure of a template
+     */
+    @GetMapping("/{id}/structure")
+    @Operation(
+        summary = "Get template structure",
+        description = "Title, theme, slide count, byte range of each slide and referenced assets, parsed when "
+            + "the content was written.",
+        method = "GET"
+    )
+    public ResponseEntity<TemplateStructureResponse> getTemplateStructure(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(templateService.getTemplateStructure(id));
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error fetching structure of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get template by name. Supports If-None-Match / If-Modified-Since; a 304 is answered from
+     * metadata alone.
      */
     @GetMapping("/name/{name}")
-    public ResponseEntity<TemplateResponse> getTemplateByName(@PathVariable String name) {
+    public ResponseEntity<TemplateResponse> getTemplateByName(@PathVariable String name, WebRequest request) {
         try {
+            TemplateValidators validators = templateService.getTemplateValidatorsByName(name);
+            if (request.checkNotModified(validators.etag(), validators.lastModified())) {
+                return null; // 304, status and validators already set
+            }
             Template template = templateService.getTemplateByName(name);
             return ResponseEntity.ok(TemplateResponse.from(template));
         } catch (TemplateNotFoundException e) {
@@ -137,22 +300,70 @@ public class TemplateController {
     }
     
     /**
-     * Search templates
+     * Search templates (ranked, paged, with snippets)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<TemplateResponse>> searchTemplates(@RequestParam(required = false) String q) {
+    @Operation(
+        summary = "Search templates",
+        description = "Full-text search over display name, description and slide text. Accent-insensitive; "
+            + "every term must match, as a whole word or a word prefix. An empty query lists all templates.",
+        method = "GET"
+    )
+    public ResponseEntity<TemplateSearchResponse> searchTemplates(
+        @RequestParam(required = false) String q,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<Template> templates = templateService.searchTemplates(q);
-            List<TemplateResponse> response = templates.stream()
-                    .map(TemplateResponse::from)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            TemplateSearchIndex.SearchResult result = templateService.searchTemplates(q, page, size);
+            return ResponseEntity.ok(new TemplateSearchResponse(q, page, size, result));
         } catch (Exception e) {
             logger.error("Error searching templates with query: " + q, e);
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * Export the whole catalog, streamed: NDJSON (default), a zip of the HTML files, or a zip of
+     * self-contained offline pages
+     */
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export all templates",
+        description = "Streams every template, content included, as NDJSON or as a zip of HTML files. "
+            + "format=offline zips each active template as a single HTML file with reveal.js and images inlined.",
+        method = "GET"
+    )
+    public ResponseEntity<StreamingResponseBody> exportTemplates(@RequestParam(defaultValue = "ndjson") String format) {
+        if ("zip".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = out -> templateExportService.exportZip(out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename("templates.zip").build().toString())
+                    .body(body);
+        }
+        if ("offline".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = out -> templateExportService.exportOfflineZip(out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename("templates-offline.zip").build().toString())
+                    .body(body);
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> templateExportService.exportNdjson(out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("templates.ndjson").build().toString())
+                .body(body);
+    }
+    
     /**
      * Create a new template
      */
@@ -183,6 +394,36 @@ public class TemplateController {
         }
     }
     
+    /**
+     * Create, update and delete templates in one request
+     */
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Batch create/update/delete",
+        description = "Applies up to " + TemplateBatchRequest.MAX_ITEMS + " items in one transaction. Each item "
+            + "is reported on its own; invalid or conflicting items fail without aborting the rest.",
+        method = "POST"
+    )
+    public ResponseEntity<Object> applyBatch(@Valid @RequestBody TemplateBatchRequest request,
+                                             BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Validation failed");
+            errorResponse.put("errors", bindingResult.getAllErrors());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        try {
+            return ResponseEntity.ok(templateService.applyBatch(request.getItems()));
+        } catch (Exception e) {
+            logger.error("Error applying template batch", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Failed to apply batch: " + e.getMessage());
+            errorResponse.put("error", "BATCH_FAILED");
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+    
     /**
      * Update an existing template
      */
@@ -205,6 +446,9 @@ public class TemplateController {
             errorResponse.put("message", e.getMessage());
             errorResponse.put("error", "TEMPLATE_NOT_FOUND");
             return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // A concurrent write won: reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error updating template with id: " + id, e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -214,6 +458,31 @@ public class TemplateController {
         }
     }
     
+    /**
+     * Partially update a template: replace slides or apply a unified diff against a known version
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchTemplate(@PathVariable Long id,
+                                                @Valid @RequestBody TemplatePatchRequest request,
+                                                BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Validation failed");
+            errorResponse.put("errors", bindingResult.getAllErrors());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        // Conflicts and a missing template are reported by GlobalExceptionHandler
+        try {
+            return ResponseEntity.ok(TemplateResponse.from(templateService.patchTemplate(id, request)));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("error", "INVALID_PATCH");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
     /**
      * Delete a template
      */
@@ -230,6 +499,9 @@ public class TemplateController {
             errorResponse.put("message", e.getMessage());
             errorResponse.put("error", "TEMPLATE_NOT_FOUND");
             return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // A concurrent write won: reported as 409 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error deleting template with id: " + id, e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -245,10 +517,12 @@ public class TemplateController {
     @PostMapping("/initialize")
     public ResponseEntity<Object> initializeTemplates() {
         try {
-            templateService.initializeTemplatesFromFileSystem();
+            TemplateImportReport report = templateService.initializeTemplatesFromFileSystem();
+            metrics.recordImport("api", report);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Templates initialized successfully from file system");
             response.put("success", true);
+            response.put("report", report);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error initializing templates", e);
@@ -258,4 +532,28 @@ public class TemplateController {
             return ResponseEntity.internalServerError().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parse a sort parameter such as "createdAt,desc" against the whitelisted keys
+     */
+    private static TemplateCursor parseSort(String sort) {
+        String[] sortParams = sort.split(",");
+        Sort.Direction direction = (sortParams.length > 1 && "desc".equalsIgnoreCase(sortParams[1].trim()))
+            ? Sort.Direction.DESC
+            : Sort.Direction.ASC;
+        return TemplateCursor.first(TemplateSortKey.fromProperty(sortParams[0]), direction);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip") || parts[0].trim().equals("*")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
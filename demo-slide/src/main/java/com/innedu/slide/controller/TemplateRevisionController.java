@@ -0,0 +1,105 @@
+package com.innedu.slide.controller;
+
+import com.innedu.slide.dto.TemplateRevisionResponse;
+import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.service.TemplateRevisionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/templates/{id}/revisions")
+@Tag(name = "revisions", description = "Template content history")
+@CrossOrigin(origins = "*")
+public class TemplateRevisionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRevisionController.class);
+
+    private static final MediaType TEXT_DIFF = new MediaType("text", "x-diff", StandardCharsets.UTF_8);
+
+    private final TemplateRevisionService revisionService;
+
+    public TemplateRevisionController(TemplateRevisionService revisionService) {
+        this.revisionService = revisionService;
+    }
+
+    /**
+     * List the revisions of a template
+     */
+    @GetMapping
+    @Operation(
+        summary = "List revisions",
+        description = "Content revisions, newest first, numbered by the template version that wrote them.",
+        method = "GET"
+    )
+    public ResponseEntity<List<TemplateRevisionResponse>> getRevisions(@PathVariable Long id) {
+        try {
+            List<TemplateRevisionResponse> revisions = revisionService.getRevisions(id).stream()
+                    .map(TemplateRevisionResponse::from)
+                    .toList();
+            return ResponseEntity.ok(revisions);
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error fetching revisions of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get the HTML content of a revision
+     */
+    @GetMapping("/{revision}")
+    @Operation(
+        summary = "Get a revision",
+        description = "The deck HTML as it was at the given revision.",
+        method = "GET"
+    )
+    public ResponseEntity<String> getRevision(@PathVariable Long id, @PathVariable long revision) {
+        try {
+            return revisionService.getRevisionContent(id, revision)
+                    .map(content -> ResponseEntity.ok()
+                            .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                            .body(content))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error fetching revision " + revision + " of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Diff two revisions
+     */
+    @GetMapping("/{from}/diff/{to}")
+    @Operation(
+        summary = "Diff two revisions",
+        description = "Unified diff from one revision to another; empty if the content is the same.",
+        method = "GET"
+    )
+    public ResponseEntity<String> diffRevisions(@PathVariable Long id, @PathVariable long from, @PathVariable long to) {
+        try {
+            return revisionService.diffRevisions(id, from, to)
+                    .map(diff -> ResponseEntity.ok().contentType(TEXT_DIFF).body(diff))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (TemplateNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error diffing revisions " + from + " and " + to + " of template with id: " + id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.innedu.slide.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Creates, updates and deletes applied together by {@code POST /api/templates/batch}.
+ *
+ * <p>Items are validated as the single-item endpoints validate them; each item succeeds or fails
+ * on its own.
+ */
+public class TemplateBatchRequest {
+    public static final int MAX_ITEMS = 500;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items per batch")
+    private List<Item> items;
+
+    // Default constructor
+    public TemplateBatchRequest() {}
+
+    // Getters and Setters
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+        public enum Operation {
+            CREATE, UPDATE, DELETE
+        }
+
+        private Operation op;
+
+        // Target of UPDATE and DELETE
+        private Long id;
+
+        // Optional for UPDATE and DELETE: fail the item if the template is at another version
+        private Long baseVersion;
+
+        private String name;
+
+        private String displayName;
+
+        private String description;
+
+        private String content;
+
+        private String theme;
+
+        private Boolean isActive;
+
+        // Default constructor
+        public Item() {}
+
+        public TemplateCreateRequest toCreateRequest() {
+            return new TemplateCreateRequest(name, displayName, description, content, theme);
+        }
+
+        public TemplateUpdateRequest toUpdateRequest() {
+            return new TemplateUpdateRequest(displayName, description, content, theme, isActive);
+        }
+
+        // Getters and Setters
+        public Operation getOp() {
+            return op;
+        }
+
+        public void setOp(Operation op) {
+            this.op = op;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getBaseVersion() {
+            return baseVersion;
+        }
+
+        public void setBaseVersion(Long baseVersion) {
+            this.baseVersion = baseVersion;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public void setDisplayName(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public String getTheme() {
+            return theme;
+        }
+
+        public void setTheme(String theme) {
+            this.theme = theme;
+        }
+
+        public Boolean getIsActive() {
+            return isActive;
+        }
+
+        public void setIsActive(Boolean isActive) {
+            this.isActive = isActive;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.innedu.slide.dto;
+
+import java.util.List;
+
+public class TemplateBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    // Default constructor
+    public TemplateBatchResponse() {}
+
+    // Constructor
+    public TemplateBatchResponse(List<ItemResult> results) {
+        this.results = results;
+        this.failed = (int) results.stream().filter(result -> result.error() != null).count();
+        this.succeeded = results.size() - failed;
+    }
+
+    // Getters and Setters
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ItemResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Outcome of the item at {@code index}: status CREATED, UPDATED, DELETED or FAILED, with an
+     * error code and message when it failed
+     */
+    public record ItemResult(int index, String op, String status, Long id, Long version, String error, String message) {
+
+        public static ItemResult succeeded(int index, TemplateBatchRequest.Item.Operation op, String status,
+                                           Long id, Long version) {
+            return new ItemResult(index, op.name(), status, id, version, null, null);
+        }
+
+        public static ItemResult failed(int index, TemplateBatchRequest.Item.Operation op, Long id,
+                                        String error, String message) {
+            return new ItemResult(index, op != null ? op.name() : null, "FAILED", id, null, error, message);
+        }
+    }
+}
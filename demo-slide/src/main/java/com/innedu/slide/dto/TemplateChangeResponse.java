@@ -0,0 +1,34 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.event.TemplateChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template change as sent on the change feed: which template, its new version, the fields that
+ * changed and the new values of the changed metadata fields. Content is never included; clients
+ * that show it fetch the template when {@code changedFields} contains {@code content}.
+ */
+public record TemplateChangeResponse(String type, Long id, String name, Long version, LocalDateTime updatedAt,
+                                     List<String> changedFields, Map<String, Object> values) {
+
+    public static TemplateChangeResponse from(TemplateChangedEvent event) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : event.getChangedFields()) {
+            switch (field) {
+                case "displayName" -> values.put(field, event.getDisplayName());
+                case "description" -> values.put(field, event.getDescription());
+                case "theme" -> values.put(field, event.getTheme());
+                case "isActive" -> values.put(field, event.getIsActive());
+                default -> {
+                    // content is only named
+                }
+            }
+        }
+        return new TemplateChangeResponse(event.getType().name(), event.getId(), event.getName(), event.getVersion(),
+                event.getUpdatedAt(), event.getChangedFields(), values);
+    }
+}
@@ -0,0 +1,103 @@
+package com.innedu.slide.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TemplateImportReport {
+    private int filesScanned;
+    private int imported;
+    private int updated;
+    private int deactivated;
+    private int skipped;
+    private long durationMs;
+    private double filesPerSecond;
+    private List<FileFailure> failures = new ArrayList<>();
+
+    // Default constructor
+    public TemplateImportReport() {}
+
+    public void addFailure(String file, String error) {
+        failures.add(new FileFailure(file, error));
+    }
+
+    /**
+     * Record the elapsed time since {@code startNanos} and derive the throughput
+     */
+    public TemplateImportReport finish(long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        this.durationMs = elapsedNanos / 1_000_000;
+        this.filesPerSecond = elapsedNanos > 0 ? filesScanned * 1_000_000_000.0 / elapsedNanos : 0;
+        return this;
+    }
+
+    // Getters and Setters
+    public int getFilesScanned() {
+        return filesScanned;
+    }
+
+    public void setFilesScanned(int filesScanned) {
+        this.filesScanned = filesScanned;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getDeactivated() {
+        return deactivated;
+    }
+
+    public void setDeactivated(int deactivated) {
+        this.deactivated = deactivated;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getFailed() {
+        return failures.size();
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public double getFilesPerSecond() {
+        return filesPerSecond;
+    }
+
+    public void setFilesPerSecond(double filesPerSecond) {
+        this.filesPerSecond = filesPerSecond;
+    }
+
+    public List<FileFailure> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<FileFailure> failures) {
+        this.failures = failures;
+    }
+
+    public record FileFailure(String file, String error) {}
+}
@@ -0,0 +1,129 @@
+package com.innedu.slide.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Partial update of a template made against a known version.
+ *
+ * <p>The content is changed either by replacing whole top-level slides or by applying a unified
+ * diff, not both. Metadata fields that are null are left unchanged.
+ */
+public class TemplatePatchRequest {
+    @NotNull(message = "Base version is required")
+    private Long baseVersion;
+
+    @Valid
+    private List<SlideReplacement> slides;
+
+    private String patch;
+
+    private String displayName;
+
+    private String description;
+
+    private String theme;
+
+    private Boolean isActive;
+
+    // Default constructor
+    public TemplatePatchRequest() {}
+
+    // Getters and Setters
+    public Long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(Long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    public List<SlideReplacement> getSlides() {
+        return slides;
+    }
+
+    public void setSlides(List<SlideReplacement> slides) {
+        this.slides = slides;
+    }
+
+    public String getPatch() {
+        return patch;
+    }
+
+    public void setPatch(String patch) {
+        this.patch = patch;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTheme() {
+        return theme;
+    }
+
+    public void setTheme(String theme) {
+        this.theme = theme;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    /**
+     * New HTML for the top-level slide at {@code index}, the whole {@code <section>} element
+     */
+    public static class SlideReplacement {
+        @NotNull(message = "Slide index is required")
+        @Min(value = 0, message = "Slide index must not be negative")
+        private Integer index;
+
+        @NotNull(message = "Slide HTML is required")
+        private String html;
+
+        // Default constructor
+        public SlideReplacement() {}
+
+        // Constructor
+        public SlideReplacement(Integer index, String html) {
+            this.index = index;
+            this.html = html;
+        }
+
+        // Getters and Setters
+        public Integer getIndex() {
+            return index;
+        }
+
+        public void setIndex(Integer index) {
+            this.index = index;
+        }
+
+        public String getHtml() {
+            return html;
+        }
+
+        public void setHtml(String html) {
+            this.html = html;
+        }
+    }
+}
@@ -12,9 +12,12 @@ public class TemplateResponse {
     private String filePath;
     private String content;
     private String theme;
+    private String title;
+    private Integer slideCount;
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // Default constructor
     public TemplateResponse() {}
@@ -28,9 +31,12 @@ public class TemplateResponse {
         this.filePath = template.getFilePath();
         this.content = template.getContent();
         this.theme = template.getTheme();
+        this.title = template.getTitle();
+        this.slideCount = template.getSlideCount();
         this.isActive = template.getIsActive();
         this.createdAt = template.getCreatedAt();
         this.updatedAt = template.getUpdatedAt();
+        this.version = template.getVersion();
     }
 
     // Static factory method
@@ -95,6 +101,22 @@ public class TemplateResponse {
         this.theme = theme;
     }
 
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getSlideCount() {
+        return slideCount;
+    }
+
+    public void setSlideCount(Integer slideCount) {
+        this.slideCount = slideCount;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -118,4 +140,12 @@ public class TemplateResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
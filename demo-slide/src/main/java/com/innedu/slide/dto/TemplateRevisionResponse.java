@@ -0,0 +1,91 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.repository.TemplateRevisionSummary;
+
+import java.time.LocalDateTime;
+
+public class TemplateRevisionResponse {
+    private Long revision;
+    private String kind;
+    private Integer chainLength;
+    private Integer storedBytes;
+    private Integer contentLength;
+    private String contentHash;
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public TemplateRevisionResponse() {}
+
+    // Constructor from projection
+    public TemplateRevisionResponse(TemplateRevisionSummary revision) {
+        this.revision = revision.getRevision();
+        this.kind = revision.getKind().name();
+        this.chainLength = revision.getChainLength();
+        this.storedBytes = revision.getStoredBytes();
+        this.contentLength = revision.getContentLength();
+        this.contentHash = revision.getContentHash();
+        this.createdAt = revision.getCreatedAt();
+    }
+
+    // Static factory method
+    public static TemplateRevisionResponse from(TemplateRevisionSummary revision) {
+        return new TemplateRevisionResponse(revision);
+    }
+
+    // Getters and Setters
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public Integer getChainLength() {
+        return chainLength;
+    }
+
+    public void setChainLength(Integer chainLength) {
+        this.chainLength = chainLength;
+    }
+
+    public Integer getStoredBytes() {
+        return storedBytes;
+    }
+
+    public void setStoredBytes(Integer storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    public Integer getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Integer contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
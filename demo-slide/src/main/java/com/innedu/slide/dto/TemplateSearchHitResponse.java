@@ -0,0 +1,49 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.search.TemplateSearchIndex;
+
+public class TemplateSearchHitResponse {
+    private TemplateSummaryResponse template;
+    private double score;
+    private String snippet;
+
+    // Default constructor
+    public TemplateSearchHitResponse() {}
+
+    // Constructor from search hit
+    public TemplateSearchHitResponse(TemplateSearchIndex.SearchHit hit) {
+        this.template = TemplateSummaryResponse.from(hit.template());
+        this.score = hit.score();
+        this.snippet = hit.snippet();
+    }
+
+    // Static factory method
+    public static TemplateSearchHitResponse from(TemplateSearchIndex.SearchHit hit) {
+        return new TemplateSearchHitResponse(hit);
+    }
+
+    // Getters and Setters
+    public TemplateSummaryResponse getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(TemplateSummaryResponse template) {
+        this.template = template;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+}
@@ -0,0 +1,69 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.search.TemplateSearchIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TemplateSearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<TemplateSearchHitResponse> hits;
+
+    // Default constructor
+    public TemplateSearchResponse() {}
+
+    // Constructor from search result
+    public TemplateSearchResponse(String query, int page, int size, TemplateSearchIndex.SearchResult result) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.totalHits = result.totalHits();
+        this.hits = result.hits().stream()
+                .map(TemplateSearchHitResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public List<TemplateSearchHitResponse> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<TemplateSearchHitResponse> hits) {
+        this.hits = hits;
+    }
+}
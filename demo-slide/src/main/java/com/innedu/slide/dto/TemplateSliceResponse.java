@@ -0,0 +1,65 @@
+package com.innedu.slide.dto;
+
+import java.util.List;
+
+public class TemplateSliceResponse {
+    private List<TemplateSummaryResponse> content;
+    private int size;
+    private String sort;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Default constructor
+    public TemplateSliceResponse() {}
+
+    // Constructor
+    public TemplateSliceResponse(List<TemplateSummaryResponse> content, int size, String sort,
+                                 boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.sort = sort;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TemplateSummaryResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<TemplateSummaryResponse> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,92 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.entity.SlideRange;
+import com.innedu.slide.entity.Template;
+
+import java.util.List;
+
+public class TemplateStructureResponse {
+    private Long id;
+    private Long version;
+    private String title;
+    private String theme;
+    private Integer slideCount;
+    private List<SlideRange> slides;
+    private List<String> assets;
+
+    // Default constructor
+    public TemplateStructureResponse() {}
+
+    // Constructor from Entity; slides and assets must be loaded
+    public TemplateStructureResponse(Template template) {
+        this.id = template.getId();
+        this.version = template.getVersion();
+        this.title = template.getTitle();
+        this.theme = template.getTheme();
+        this.slideCount = template.getSlideCount();
+        this.slides = template.getSlides() != null ? List.copyOf(template.getSlides()) : List.of();
+        this.assets = template.getAssets() != null ? List.copyOf(template.getAssets()) : List.of();
+    }
+
+    // Static factory method
+    public static TemplateStructureResponse from(Template template) {
+        return new TemplateStructureResponse(template);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getTheme() {
+        return theme;
+    }
+
+    public void setTheme(String theme) {
+        this.theme = theme;
+    }
+
+    public Integer getSlideCount() {
+        return slideCount;
+    }
+
+    public void setSlideCount(Integer slideCount) {
+        this.slideCount = slideCount;
+    }
+
+    public List<SlideRange> getSlides() {
+        return slides;
+    }
+
+    public void setSlides(List<SlideRange> slides) {
+        this.slides = slides;
+    }
+
+    public List<String> getAssets() {
+        return assets;
+    }
+
+    public void setAssets(List<String> assets) {
+        this.assets = assets;
+    }
+}
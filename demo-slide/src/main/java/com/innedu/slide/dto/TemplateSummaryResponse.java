@@ -0,0 +1,121 @@
+package com.innedu.slide.dto;
+
+import com.innedu.slide.repository.TemplateSummary;
+
+import java.time.LocalDateTime;
+
+public class TemplateSummaryResponse {
+    private Long id;
+    private String name;
+    private String displayName;
+    private String description;
+    private String filePath;
+    private String theme;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    // Default constructor
+    public TemplateSummaryResponse() {}
+
+    // Constructor from projection
+    public TemplateSummaryResponse(TemplateSummary summary) {
+        this.id = summary.getId();
+        this.name = summary.getName();
+        this.displayName = summary.getDisplayName();
+        this.description = summary.getDescription();
+        this.filePath = summary.getFilePath();
+        this.theme = summary.getTheme();
+        this.isActive = summary.getIsActive();
+        this.createdAt = summary.getCreatedAt();
+        this.updatedAt = summary.getUpdatedAt();
+        this.version = summary.getVersion();
+    }
+
+    // Static factory method
+    public static TemplateSummaryResponse from(TemplateSummary summary) {
+        return new TemplateSummaryResponse(summary);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getTheme() {
+        return theme;
+    }
+
+    public void setTheme(String theme) {
+        this.theme = theme;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
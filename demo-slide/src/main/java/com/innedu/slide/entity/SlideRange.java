@@ -0,0 +1,14 @@
+package com.innedu.slide.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Position of one top-level {@code <section>} in a template's content, in bytes of the UTF-8
+ * encoded (decompressed) content.
+ */
+@Embeddable
+public record SlideRange(
+        @Column(name = "byte_offset", nullable = false) long byteOffset,
+        @Column(name = "byte_length", nullable = false) int byteLength) {
+}
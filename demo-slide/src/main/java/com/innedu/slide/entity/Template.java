@@ -1,31 +1,58 @@
 package com.innedu.slide.entity;
 
 import jakarta.persistence.*;
+import com.innedu.slide.parser.DeckParser;
+import com.innedu.slide.parser.DeckStructure;
+import com.innedu.slide.util.GzipCodec;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "templates")
+@Table(name = "templates", indexes = {
+        // Keyset pagination: one index per sort key, id as tiebreaker (name is already unique)
+        @Index(name = "idx_templates_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_templates_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_templates_display_name_id", columnList = "display_name, id"),
+        @Index(name = "idx_templates_active_created_at", columnList = "is_active, created_at"),
+        @Index(name = "idx_templates_theme_active", columnList = "theme, is_active")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Template {
+    // Pooled sequence rather than IDENTITY so that inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "templates_seq")
+    @SequenceGenerator(name = "templates_seq", sequenceName = "templates_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", unique = true, nullable = false)
     @NotBlank(message = "Template name is required")
     private String name;
 
+    // Lowercased name, kept in step with name; case-insensitive lookups hit its unique index
+    // instead of scanning with LOWER(name)
+    @Column(name = "name_normalized", unique = true, nullable = false)
+    private String nameNormalized;
+
     @Column(name = "display_name", nullable = false)
     @NotBlank(message = "Display name is required")
     private String displayName;
@@ -37,10 +64,49 @@ public class Template {
     @NotBlank(message = "File path is required")
     private String filePath;
 
-    @Column(name = "content", columnDefinition = "TEXT")
-    @NotBlank(message = "Template content is required")
+    // Content is stored gzip-compressed; the bytes double as the pre-compressed wire variant.
+    // Lazy so that loading the entity for metadata does not pull the whole deck;
+    // requires Hibernate bytecode enhancement (see pom.xml).
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "content_gzip")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @NotNull(message = "Template content is required")
+    private byte[] contentGzip;
+
+    // Decompressed content, memoized on first access
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String content;
 
+    // SHA-256 of content, maintained on every content write; used for strong ETags
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Deck structure, parsed from the content on every content write (see DeckParser)
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "slide_count")
+    private Integer slideCount;
+
+    @ElementCollection
+    @CollectionTable(name = "template_slides", joinColumns = @JoinColumn(name = "template_id"))
+    @OrderColumn(name = "slide_index")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<SlideRange> slides;
+
+    @ElementCollection
+    @CollectionTable(name = "template_assets", joinColumns = @JoinColumn(name = "template_id"))
+    @OrderColumn(name = "asset_index")
+    @Column(name = "url", length = 2048, nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<String> assets;
+
     @Column(name = "theme")
     private String theme = "black";
 
@@ -55,11 +121,120 @@ public class Template {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     // Constructor with required fields
     public Template(String name, String displayName, String filePath, String content) {
-        this.name = name;
+        setName(name);
         this.displayName = displayName;
         this.filePath = filePath;
+        setContent(content);
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameNormalized = normalizeName(name);
+    }
+
+    public String getContent() {
+        if (content == null && contentGzip != null) {
+            content = GzipCodec.decompress(contentGzip);
+        }
+        return content;
+    }
+
+    public void setContent(String content) {
+        setContent(content, DeckParser.parse(content));
+    }
+
+    /**
+     * Set the content along with its already parsed structure
+     */
+    public void setContent(String content, DeckStructure structure) {
         this.content = content;
+        this.contentGzip = GzipCodec.compress(content);
+        this.contentHash = hashContent(content);
+        applyStructure(structure);
+    }
+
+    /**
+     * Re-parse the stored content, for rows written before the structure was recorded
+     */
+    public void refreshStructure() {
+        applyStructure(DeckParser.parse(getContent()));
+    }
+
+    private void applyStructure(DeckStructure structure) {
+        this.title = structure.title();
+        this.slideCount = structure.slideCount();
+        if (slides == null) {
+            slides = new ArrayList<>();
+        }
+        slides.clear();
+        slides.addAll(structure.slides());
+        if (assets == null) {
+            assets = new ArrayList<>();
+        }
+        assets.clear();
+        assets.addAll(structure.assets());
+    }
+
+    public void setContentGzip(byte[] contentGzip) {
+        this.contentGzip = contentGzip;
+        this.content = null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void fillDerivedColumns() {
+        nameNormalized = normalizeName(name);
+        if (contentHash == null && contentGzip != null) {
+            contentHash = hashContent(getContent());
+        }
+    }
+
+    /**
+     * Case-insensitive form of a template name, as stored in {@code name_normalized}
+     */
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hex SHA-256 of the UTF-8 content, as stored in {@code content_hash}
+     */
+    public static String hashContent(String content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class TemplateBuilder {
+        public TemplateBuilder name(String name) {
+            this.name = name;
+            this.nameNormalized = normalizeName(name);
+            return this;
+        }
+
+        // Keep the stored bytes, hash and structure in step with the content, as setContent does
+        public TemplateBuilder content(String content) {
+            DeckStructure structure = DeckParser.parse(content);
+            this.content = content;
+            this.contentGzip = GzipCodec.compress(content);
+            this.contentHash = hashContent(content);
+            this.title = structure.title();
+            this.slideCount = structure.slideCount();
+            this.slides = new ArrayList<>(structure.slides());
+            this.assets = new ArrayList<>(structure.assets());
+            return this;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.innedu.slide.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a pending template file write or delete. Inserted in the same transaction as the
+ * template change and removed once the file system has caught up.
+ */
+@Entity
+@Table(name = "template_file_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateFileTask {
+
+    public enum Operation {
+        WRITE, DELETE
+    }
+
+    // Pooled sequence rather than IDENTITY so that a batch of writes inserts its tasks in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "template_file_outbox_seq")
+    @SequenceGenerator(name = "template_file_outbox_seq", sequenceName = "template_file_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    // Insert order, assigned by the database: ids come in per-instance blocks and do not follow it
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long seq;
+
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 16)
+    private Operation operation;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public TemplateFileTask(Long templateId, String filePath, Operation operation) {
+        this.templateId = templateId;
+        this.filePath = filePath;
+        this.operation = operation;
+    }
+}
@@ -0,0 +1,81 @@
+package com.innedu.slide.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored version of a template's content, numbered by the template version that wrote it.
+ *
+ * <p>A SNAPSHOT holds the gzip content; a DELTA holds a {@code LineDelta} from the previous
+ * revision. {@code chainLength} counts the deltas since the last snapshot, which bounds the work
+ * needed to rebuild the revision.
+ */
+@Entity
+@Table(name = "template_revisions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_template_revisions_revision", columnNames = {"template_id", "revision"})
+})
+@Data
+@NoArgsConstructor
+public class TemplateRevision {
+
+    public enum Kind {
+        SNAPSHOT, DELTA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "template_revisions_seq")
+    @SequenceGenerator(name = "template_revisions_seq", sequenceName = "template_revisions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "template_id", nullable = false)
+    private Long templateId;
+
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "chain_length", nullable = false)
+    private Integer chainLength;
+
+    // Only read when rebuilding content
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "data", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] data;
+
+    @Column(name = "stored_bytes", nullable = false)
+    private Integer storedBytes;
+
+    @Column(name = "content_length", nullable = false)
+    private Integer contentLength;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public TemplateRevision(Long templateId, Long revision, Kind kind, int chainLength, byte[] data,
+                            int contentLength, String contentHash) {
+        this.templateId = templateId;
+        this.revision = revision;
+        this.kind = kind;
+        this.chainLength = chainLength;
+        this.data = data;
+        this.storedBytes = data.length;
+        this.contentLength = contentLength;
+        this.contentHash = contentHash;
+    }
+}
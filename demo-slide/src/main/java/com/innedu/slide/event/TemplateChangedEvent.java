@@ -0,0 +1,193 @@
+package com.innedu.slide.event;
+
+import com.innedu.slide.entity.Template;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Published by {@code TemplateService} for every template write. Listeners that need committed
+ * state should use {@code @TransactionalEventListener} (after commit).
+ *
+ * <p>Carries a snapshot of the template's metadata so listeners never touch a detached entity.
+ * {@link #getContent()} and {@link #getContentGzip()} are only set when the content was written,
+ * and are {@code null} for metadata-only updates and deletions. {@link #getChangedFields()} names
+ * the writable fields an update changed, out of {@link #FIELDS}.
+ *
+ * <p>In clustered mode, changes made by other instances are published again locally with
+ * {@link #isRemote()} set, outside any transaction.
+ */
+public class TemplateChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    /** The fields a client can write, in the order they are reported */
+    public static final List<String> FIELDS = List.of("displayName", "description", "theme", "isActive", "content");
+
+    private final Type type;
+    private final Long id;
+    private final String name;
+    private final String displayName;
+    private final String description;
+    private final String filePath;
+    private final String theme;
+    private final Boolean isActive;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+    private final String content;
+    private final byte[] contentGzip;
+    private final List<String> changedFields;
+    private final boolean remote;
+
+    private TemplateChangedEvent(Type type, Template template, String content, List<String> changedFields,
+                                 boolean remote) {
+        this.type = type;
+        this.id = template.getId();
+        this.name = template.getName();
+        this.displayName = template.getDisplayName();
+        this.description = template.getDescription();
+        this.filePath = template.getFilePath();
+        this.theme = template.getTheme();
+        this.isActive = template.getIsActive();
+        this.createdAt = template.getCreatedAt();
+        this.updatedAt = template.getUpdatedAt();
+        this.version = template.getVersion();
+        this.content = content;
+        this.contentGzip = content != null ? template.getContentGzip() : null;
+        this.changedFields = changedFields;
+        this.remote = remote;
+    }
+
+    public static TemplateChangedEvent created(Template template) {
+        return new TemplateChangedEvent(Type.CREATED, template, template.getContent(), FIELDS, false);
+    }
+
+    /**
+     * An update of the given template, whose fields were {@code before} beforehand
+     */
+    public static TemplateChangedEvent updated(Template template, Snapshot before) {
+        List<String> changed = before.changedFields(template);
+        return new TemplateChangedEvent(Type.UPDATED, template,
+                changed.contains("content") ? template.getContent() : null, changed, false);
+    }
+
+    /**
+     * An update that changed the content or, if not, none of the writable fields
+     */
+    public static TemplateChangedEvent updated(Template template, boolean contentChanged) {
+        return new TemplateChangedEvent(Type.UPDATED, template, contentChanged ? template.getContent() : null,
+                contentChanged ? List.of("content") : List.of(), false);
+    }
+
+    public static TemplateChangedEvent deleted(Template template) {
+        return new TemplateChangedEvent(Type.DELETED, template, null, List.of(), false);
+    }
+
+    /**
+     * A change made by another instance. {@code template} is its current state, or for a deletion
+     * holds only the id, name and version; the content is read when it was written.
+     */
+    public static TemplateChangedEvent remote(Type type, Template template, List<String> changedFields) {
+        boolean withContent = type == Type.CREATED || (type == Type.UPDATED && changedFields.contains("content"));
+        return new TemplateChangedEvent(type, template, withContent ? template.getContent() : null, changedFields, true);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public String getTheme() {
+        return theme;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public byte[] getContentGzip() {
+        return contentGzip;
+    }
+
+    /**
+     * The writable fields this event changed: all of them for a creation, none for a deletion
+     */
+    public List<String> getChangedFields() {
+        return changedFields;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    /**
+     * The writable fields of a template, taken before an update to report what it changed
+     */
+    public record Snapshot(String displayName, String description, String theme, Boolean isActive, String contentHash) {
+
+        public static Snapshot of(Template template) {
+            return new Snapshot(template.getDisplayName(), template.getDescription(), template.getTheme(),
+                    template.getIsActive(), template.getContentHash());
+        }
+
+        List<String> changedFields(Template after) {
+            List<String> changed = new ArrayList<>();
+            if (!Objects.equals(displayName, after.getDisplayName())) {
+                changed.add("displayName");
+            }
+            if (!Objects.equals(description, after.getDescription())) {
+                changed.add("description");
+            }
+            if (!Objects.equals(theme, after.getTheme())) {
+                changed.add("theme");
+            }
+            if (!Objects.equals(isActive, after.getIsActive())) {
+                changed.add("isActive");
+            }
+            if (!Objects.equals(contentHash, after.getContentHash())) {
+                changed.add("content");
+            }
+            return changed;
+        }
+    }
+}
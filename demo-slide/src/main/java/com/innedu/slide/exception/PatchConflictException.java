@@ -0,0 +1,7 @@
+package com.innedu.slide.exception;
+
+public class PatchConflictException extends RuntimeException {
+    public PatchConflictException(String message) {
+        super(message);
+    }
+}
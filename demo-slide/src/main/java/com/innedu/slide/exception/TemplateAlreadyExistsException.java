@@ -8,4 +8,8 @@ public class TemplateAlreadyExistsException extends RuntimeException {
     public static TemplateAlreadyExistsException forTemplateName(String templateName) {
         return new TemplateAlreadyExistsException("Template already exists with name: " + templateName);
     }
+    
+    public static TemplateAlreadyExistsException forFilePath(String templateName, String filePath) {
+        return new TemplateAlreadyExistsException("Template already exists with file " + filePath + " for name: " + templateName);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.innedu.slide.exception;
+
+public class TemplateVersionConflictException extends RuntimeException {
+    private final Long currentVersion;
+
+    public TemplateVersionConflictException(Long id, Long baseVersion, Long currentVersion) {
+        super("Template " + id + " is at version " + currentVersion + ", not " + baseVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
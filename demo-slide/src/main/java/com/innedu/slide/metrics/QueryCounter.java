@@ -0,0 +1,84 @@
+package com.innedu.slide.metrics;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts JDBC statement executions as reported by p6spy, in total and for the current thread
+ * while a {@link Scope} is open, so each request can report how many statements it ran and how
+ * long they took. A batch execution counts as one statement.
+ */
+@Component
+public class QueryCounter extends SimpleJdbcEventListener {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final Timer success;
+    private final Timer failure;
+
+    public QueryCounter(MeterRegistry registry) {
+        this.success = statementTimer(registry, "success");
+        this.failure = statementTimer(registry, "error");
+    }
+
+    private static Timer statementTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("slide.db.statements")
+                .description("JDBC statement executions")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        (e == null ? success : failure).record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.nanos += timeElapsedNanos;
+        }
+    }
+
+    /**
+     * Start counting the statements of this thread; close the scope on the same thread
+     */
+    public Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope outer;
+        private long statements;
+        private long nanos;
+
+        private Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                outer.statements += statements;
+                outer.nanos += nanos;
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
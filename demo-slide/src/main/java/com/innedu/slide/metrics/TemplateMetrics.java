@@ -0,0 +1,115 @@
+package com.innedu.slide.metrics;
+
+import com.innedu.slide.dto.TemplateImportReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for template file I/O and imports. Method-level timings of the service come from
+ * {@code @Timed} on {@link com.innedu.slide.service.TemplateService}.
+ */
+@Component
+public class TemplateMetrics {
+
+    public static final String FILE_READ = "read";
+    public static final String FILE_WRITE = "write";
+    public static final String FILE_DELETE = "delete";
+
+    private final MeterRegistry registry;
+
+    public TemplateMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @FunctionalInterface
+    public interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface IoRun {
+        void run() throws IOException;
+    }
+
+    /**
+     * Time one file operation, tagged with its outcome
+     */
+    public <T> T timeFile(String operation, IoCall<T> call) throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder("slide.template.file")
+                    .description("Template file reads, writes and deletes")
+                    .tags("operation", operation, "outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void timeFile(String operation, IoRun run) throws IOException {
+        timeFile(operation, () -> {
+            run.run();
+            return null;
+        });
+    }
+
+    /**
+     * Read a template file as UTF-8, timed and sized. Like {@link Files#readString(Path)}, fails on
+     * malformed input.
+     */
+    public String readFile(Path path) throws IOException {
+        byte[] bytes = timeFile(FILE_READ, () -> Files.readAllBytes(path));
+        recordFileSize(FILE_READ, bytes.length);
+        return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    public void recordFileSize(String operation, long bytes) {
+        DistributionSummary.builder("slide.template.file.size")
+                .description("Size of template files read and written")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * Duration and per-file outcomes of an import from the templates directory
+     *
+     * @param trigger "startup" or "api"
+     */
+    public void recordImport(String trigger, TemplateImportReport report) {
+        Timer.builder("slide.template.import")
+                .description("Imports of the templates directory")
+                .tag("trigger", trigger)
+                .register(registry)
+                .record(Duration.ofMillis(report.getDurationMs()));
+        countImportedFiles("imported", report.getImported());
+        countImportedFiles("updated", report.getUpdated());
+        countImportedFiles("deactivated", report.getDeactivated());
+        countImportedFiles("skipped", report.getSkipped());
+        countImportedFiles("failed", report.getFailed());
+    }
+
+    private void countImportedFiles(String outcome, int files) {
+        Counter.builder("slide.template.import.files")
+                .description("Files handled by imports, by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment(files);
+    }
+}
@@ -0,0 +1,279 @@
+package com.innedu.slide.parser;
+
+import com.innedu.slide.entity.SlideRange;
+import com.innedu.slide.search.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass scanner of reveal.js deck HTML.
+ *
+ * <p>The content is walked once, tag by tag, without building a DOM. Comments and the bodies of
+ * {@code <script>} and {@code <style>} are skipped. Byte offsets are counted as the scan
+ * advances, so slide ranges index straight into the UTF-8 content. Only top-level sections are
+ * slides; a vertical stack counts as one.
+ */
+public final class DeckParser {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_ASSET_LENGTH = 2048;
+
+    /** Start tags whose attributes are inspected; all others are skipped over. */
+    private static final Set<String> INSPECTED_TAGS = Set.of(
+            "section", "link", "script", "img", "source", "video", "audio", "iframe", "embed");
+
+    private static final String[] ASSET_ATTRIBUTES = {
+            "src", "poster", "data-src", "data-background", "data-background-image",
+            "data-background-video", "data-background-iframe"};
+
+    private final String html;
+    private final int length;
+
+    // Byte position of char index charCursor
+    private int charCursor;
+    private long byteCursor;
+
+    private String title;
+    private String theme;
+    private final List<SlideRange> slides = new ArrayList<>();
+    private final Set<String> assets = new LinkedHashSet<>();
+
+    private DeckParser(String html) {
+        this.html = html;
+        this.length = html.length();
+    }
+
+    public static DeckStructure parse(String html) {
+        if (html == null || html.isEmpty()) {
+            return DeckStructure.EMPTY;
+        }
+        return new DeckParser(html).run();
+    }
+
+    private DeckStructure run() {
+        int sectionDepth = 0;
+        int sectionStart = -1;
+        int i = html.indexOf('<');
+        while (i >= 0 && i < length - 1) {
+            if (html.startsWith("<!--", i)) {
+                int end = html.indexOf("-->", i + 4);
+                i = end < 0 ? length : end + 3;
+            } else {
+                boolean closing = html.charAt(i + 1) == '/';
+                int nameStart = closing ? i + 2 : i + 1;
+                int nameEnd = nameStart;
+                while (nameEnd < length && isNameChar(html.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                if (nameEnd == nameStart) {
+                    i++; // a stray '<' in text
+                } else {
+                    String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+                    int tagEnd = findTagEnd(nameEnd);
+                    int next = Math.min(tagEnd + 1, length);
+                    if (closing) {
+                        if (name.equals("section") && sectionDepth > 0 && --sectionDepth == 0) {
+                            long start = byteOffset(sectionStart);
+                            slides.add(new SlideRange(start, (int) (byteOffset(next) - start)));
+                        }
+                    } else {
+                        boolean selfClosing = tagEnd < length && html.charAt(tagEnd - 1) == '/';
+                        if (INSPECTED_TAGS.contains(name)) {
+                            inspect(name, attributes(nameEnd, tagEnd));
+                        }
+                        switch (name) {
+                            case "section" -> {
+                                if (!selfClosing && sectionDepth++ == 0) {
+                                    sectionStart = i;
+                                }
+                            }
+                            case "title" -> next = readTitle(next);
+                            case "script", "style" -> next = skipRawText(name, next);
+                            default -> { }
+                        }
+                    }
+                    i = next;
+                }
+            }
+            i = i < length ? html.indexOf('<', i) : -1;
+        }
+        return new DeckStructure(title, theme, List.copyOf(slides), List.copyOf(assets));
+    }
+
+    private void inspect(String tag, Map<String, String> attributes) {
+        if (tag.equals("link")) {
+            String href = attributes.get("href");
+            if (href != null) {
+                if (theme == null && attributes.getOrDefault("rel", "").toLowerCase(Locale.ROOT).contains("stylesheet")) {
+                    theme = themeOf(href);
+                }
+                addAsset(href);
+            }
+        }
+        for (String attribute : ASSET_ATTRIBUTES) {
+            String value = attributes.get(attribute);
+            if (value != null) {
+                addAsset(value);
+            }
+        }
+    }
+
+    /**
+     * The theme name of a reveal.js theme stylesheet URL (".../theme/sky.css" -> "sky"), or null
+     */
+    static String themeOf(String href) {
+        int query = indexOfAny(href, '?', '#');
+        String path = query < 0 ? href : href.substring(0, query);
+        int slash = path.lastIndexOf('/');
+        if (slash < 0 || !path.endsWith(".css") || !path.substring(0, slash).endsWith("theme")) {
+            return null;
+        }
+        String name = path.substring(slash + 1, path.length() - 4);
+        return name.isEmpty() ? null : name;
+    }
+
+    private void addAsset(String url) {
+        String trimmed = url.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.length() > MAX_ASSET_LENGTH) {
+            return;
+        }
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("data:") || lower.startsWith("javascript:")) {
+            return;
+        }
+        assets.add(trimmed);
+    }
+
+    private int readTitle(int from) {
+        int end = indexOfIgnoreCase("</title", from);
+        if (end < 0) {
+            return length;
+        }
+        if (title == null) {
+            String text = TextNormalizer.htmlToText(html.substring(from, end));
+            title = text.length() > MAX_TITLE_LENGTH ? text.substring(0, MAX_TITLE_LENGTH) : text;
+        }
+        return end;
+    }
+
+    private int skipRawText(String tag, int from) {
+        int end = indexOfIgnoreCase("</" + tag, from);
+        return end < 0 ? length : end;
+    }
+
+    /**
+     * Index of the '>' closing the tag, ignoring any inside quoted attribute values
+     */
+    private int findTagEnd(int from) {
+        char quote = 0;
+        for (int i = from; i < length; i++) {
+            char c = html.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private Map<String, String> attributes(int from, int to) {
+        Map<String, String> attributes = new HashMap<>();
+        int i = from;
+        while (i < to) {
+            while (i < to && !isNameChar(html.charAt(i))) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < to && isAttributeNameChar(html.charAt(i))) {
+                i++;
+            }
+            if (i == nameStart) {
+                break;
+            }
+            String name = html.substring(nameStart, i).toLowerCase(Locale.ROOT);
+            while (i < to && Character.isWhitespace(html.charAt(i))) {
+                i++;
+            }
+            String value = "";
+            if (i < to && html.charAt(i) == '=') {
+                i++;
+                while (i < to && Character.isWhitespace(html.charAt(i))) {
+                    i++;
+                }
+                if (i < to && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+                    char quote = html.charAt(i);
+                    int end = html.indexOf(quote, i + 1);
+                    end = end < 0 || end > to ? to : end;
+                    value = html.substring(i + 1, end);
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < to && !Character.isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+                        i++;
+                    }
+                    value = html.substring(start, i);
+                }
+            }
+            attributes.putIfAbsent(name, value);
+        }
+        return attributes;
+    }
+
+    /**
+     * UTF-8 byte offset of a char index; indexes must be requested in increasing order
+     */
+    private long byteOffset(int index) {
+        while (charCursor < index) {
+            char c = html.charAt(charCursor++);
+            if (c < 0x80) {
+                byteCursor += 1;
+            } else if (c < 0x800) {
+                byteCursor += 2;
+            } else if (Character.isHighSurrogate(c) && charCursor < length
+                    && Character.isLowSurrogate(html.charAt(charCursor))) {
+                charCursor++;
+                byteCursor += 4;
+            } else {
+                byteCursor += 3;
+            }
+        }
+        return byteCursor;
+    }
+
+    private int indexOfIgnoreCase(String needle, int from) {
+        for (int i = from; i <= length - needle.length(); i++) {
+            if (html.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfAny(String s, char a, char b) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == a || s.charAt(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    private static boolean isAttributeNameChar(char c) {
+        return isNameChar(c) || c == '_' || c == ':' || c == '.';
+    }
+}
@@ -0,0 +1,18 @@
+package com.innedu.slide.parser;
+
+import com.innedu.slide.entity.SlideRange;
+
+import java.util.List;
+
+/**
+ * What {@link DeckParser} found in a deck: its title, the theme stylesheet it links, the byte
+ * range of every top-level slide and the URLs of the assets it references.
+ */
+public record DeckStructure(String title, String theme, List<SlideRange> slides, List<String> assets) {
+
+    public static final DeckStructure EMPTY = new DeckStructure(null, null, List.of(), List.of());
+
+    public int slideCount() {
+        return slides.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.innedu.slide.render;
+
+import com.innedu.slide.cache.RenderedDeckCache;
+import com.innedu.slide.entity.Template;
+import com.samskivert.mustache.Mustache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a template as a complete reveal.js page: the deck's slides are placed in the
+ * {@code templates/deck.mustache} scaffolding with the requested theme.
+ *
+ * <p>The scaffolding is compiled once at startup, and rendered pages are cached per template id,
+ * version and theme, so a repeat view neither decompresses the content nor re-renders.
+ *
+ * <p>reveal.js assets are linked by their content-hashed /reveal URLs, which browsers cache as
+ * immutable. The URLs are looked up once, on the first render.
+ */
+@Component
+public class DeckRenderer {
+
+    /** Themes shipped in reveal.js/dist/theme. */
+    public static final Set<String> THEMES = Set.of(
+            "beige", "black", "black-contrast", "blood", "dracula", "league", "moon", "night",
+            "serif", "simple", "sky", "solarized", "white", "white-contrast");
+
+    private static final String DEFAULT_THEME = "black";
+
+    /** Model key to asset path, for the links in deck.mustache other than the theme. */
+    private static final Map<String, String> ASSETS = Map.of(
+            "resetCss", "/reveal/dist/reset.css",
+            "revealCss", "/reveal/dist/reveal.css",
+            "monokaiCss", "/reveal/plugin/highlight/monokai.css",
+            "revealJs", "/reveal/dist/reveal.js",
+            "notesJs", "/reveal/plugin/notes/notes.js",
+            "markdownJs", "/reveal/plugin/markdown/markdown.js",
+            "highlightJs", "/reveal/plugin/highlight/highlight.js");
+
+    private static final Pattern SLIDES_OPEN =
+            Pattern.compile("(?i)<div\\b[^>]*\\bclass\\s*=\\s*[\"'][^\"']*\\bslides\\b[^\"']*[\"'][^>]*>");
+    private static final Pattern DIV_TAG = Pattern.compile("(?i)<(/?)div\\b[^>]*>");
+    private static final Pattern BODY = Pattern.compile("(?is)<body\\b[^>]*>(.*?)</body\\s*>");
+
+    private final com.samskivert.mustache.Template deckTemplate;
+    private final RenderedDeckCache cache;
+    private final ResourceUrlProvider resourceUrlProvider;
+
+    private volatile Map<String, String> assetUrls;
+    private volatile String assetsVersion;
+
+    public DeckRenderer(Mustache.Compiler compiler, RenderedDeckCache cache,
+                        ResourceUrlProvider resourceUrlProvider) throws IOException {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("templates/deck.mustache").getInputStream(), StandardCharsets.UTF_8)) {
+            this.deckTemplate = compiler.compile(reader);
+        }
+        this.cache = cache;
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    /**
+     * The theme to render with: the requested one if given, else the template's own, else the default
+     */
+    public static String resolveTheme(String requested, Template template) {
+        if (requested != null) {
+            return requested;
+        }
+        return template.getTheme() != null && THEMES.contains(template.getTheme()) ? template.getTheme() : DEFAULT_THEME;
+    }
+
+    /**
+     * The rendered page as UTF-8 bytes. Callers must not modify the returned array.
+     */
+    public byte[] render(Template template, String theme) {
+        RenderedDeckCache.Key key = new RenderedDeckCache.Key(template.getId(), template.getVersion(), theme);
+        return cache.get(key, () -> {
+            Map<String, Object> model = new HashMap<>();
+            model.put("title", template.getDisplayName());
+            model.put("assets", assetUrls());
+            model.put("themeCss", assetUrl("/reveal/dist/theme/" + theme + ".css"));
+            model.put("slides", extractSlides(template.getContent()));
+            return deckTemplate.execute(model).getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Short tag that changes when the linked reveal.js assets change, for deck ETags: a page
+     * revalidated after a reveal.js upgrade must not keep links to the old hashes.
+     */
+    public String assetsVersion() {
+        String version = assetsVersion;
+        if (version == null) {
+            version = Integer.toHexString(String.join(",", assetUrls().values()).hashCode());
+            assetsVersion = version;
+        }
+        return version;
+    }
+
+    private Map<String, String> assetUrls() {
+        Map<String, String> urls = assetUrls;
+        if (urls == null) {
+            // Sorted, so assetsVersion does not depend on map iteration order
+            urls = new TreeMap<>();
+            for (Map.Entry<String, String> asset : ASSETS.entrySet()) {
+                urls.put(asset.getKey(), assetUrl(asset.getValue()));
+            }
+            assetUrls = urls;
+        }
+        return urls;
+    }
+
+    /**
+     * The content-hashed URL of an asset, or its plain URL when it cannot be resolved
+     */
+    private String assetUrl(String path) {
+        String url = resourceUrlProvider.getForLookupPath(path);
+        return url != null ? url : path;
+    }
+
+    public RenderedDeckCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * The inner HTML of the deck's {@code <div class="slides">}; for content without one, the body,
+     * or the whole content if it is a bare fragment.
+     */
+    static String extractSlides(String content) {
+        if (content == null) {
+            return "";
+        }
+        Matcher open = SLIDES_OPEN.matcher(content);
+        if (open.find()) {
+            Matcher div = DIV_TAG.matcher(content);
+            int depth = 1;
+            int from = open.end();
+            while (div.find(from)) {
+                depth += div.group(1).isEmpty() ? 1 : -1;
+                if (depth == 0) {
+                    return content.substring(open.end(), div.start());
+                }
+                from = div.end();
+            }
+            return content.substring(open.end());
+        }
+        Matcher body = BODY.matcher(content);
+        return body.find() ? body.group(1) : content;
+    }
+}
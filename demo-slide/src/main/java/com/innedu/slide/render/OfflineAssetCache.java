@@ -0,0 +1,322 @@
+package com.innedu.slide.render;
+
+import com.innedu.slide.util.CssMinifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Files under the reveal.js directory, processed for inlining into offline decks: stylesheets
+ * minified with their local imports and fonts inlined, scripts made safe to place in a
+ * {@code <script>} element, and images and fonts as {@code data:} URIs.
+ *
+ * <p>Results are cached by the SHA-256 of their source, so an asset shared by many decks (the
+ * reveal.js core, a theme) is processed once. Each use costs one stat per file involved: the hash
+ * is only recomputed when a file's size or modification time changed, and a stylesheet is rebuilt
+ * when it or anything it inlined changed. The cache is an LRU bounded by total size.
+ */
+@Component
+public class OfflineAssetCache {
+
+    /** Larger files are left as links rather than bloating the page */
+    static final long MAX_INLINE_SIZE = 4 * 1024 * 1024;
+
+    /** Extensions inlined as data: URIs. Other fonts (eot, ttf) are only fallbacks to woff. */
+    private static final Set<String> INLINED_TYPES = Set.of(
+            "woff", "woff2", "png", "jpg", "jpeg", "gif", "svg", "webp", "avif");
+
+    private static final Pattern IMPORT = Pattern.compile(
+            "@import\\s*(?:url\\(\\s*(['\"]?)([^'\")]*)\\1\\s*\\)|(['\"])([^'\"]*)\\3)\\s*([^;]*);");
+    private static final Pattern URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]*)\\1\\s*\\)");
+    private static final Pattern SOURCE_MAP = Pattern.compile("(?m)^//[#@] sourceMappingURL=.*$");
+    private static final Pattern CLOSING_SCRIPT = Pattern.compile("(?i)</(script)");
+    private static final Pattern CLOSING_STYLE = Pattern.compile("(?i)</(style)");
+
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final Path revealRoot;
+    private final long maxWeight;
+
+    private final Map<Path, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Processed> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public OfflineAssetCache(@Value("${app.reveal.path:../reveal.js}") String revealPath,
+                             @Value("${app.offline.cache.max-weight:67108864}") long maxWeight) {
+        this.revealRoot = Paths.get(revealPath).toAbsolutePath().normalize();
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * The file a URL points to when resolved against {@code base} (a path under /reveal/), or null
+     * for remote URLs, data: URIs and anything outside the reveal.js directory
+     */
+    public Path resolve(String base, String url) {
+        String trimmed = url.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        try {
+            URI resolved = new URI(base).resolve(new URI(trimmed));
+            String path = resolved.getPath();
+            if (resolved.getScheme() != null || resolved.getAuthority() != null
+                    || path == null || !path.startsWith("/reveal/")) {
+                return null;
+            }
+            Path file = revealRoot.resolve(path.substring("/reveal/".length())).normalize();
+            return file.startsWith(revealRoot) ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** The /reveal/ URL path of a file under the reveal.js directory */
+    private String urlPath(Path file) {
+        return "/reveal/" + revealRoot.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * A stylesheet, minified, with local {@code @import}s and inlinable {@code url()}s inlined.
+     * Remote imports (web fonts) are dropped: offline they could only delay rendering.
+     */
+    public String stylesheet(Path file) throws IOException {
+        return stylesheet(file, new HashSet<>()).text();
+    }
+
+    /**
+     * @param importing the stylesheets whose imports are being inlined, to stop at cycles
+     */
+    private Processed stylesheet(Path file, Set<Path> importing) throws IOException {
+        importing.add(file);
+        try {
+            return processed("css:" + file.getParent(), file,
+                    (source, dependencies) -> buildStylesheet(file, source, dependencies, importing));
+        } finally {
+            importing.remove(file);
+        }
+    }
+
+    /**
+     * A script without its source map reference, safe to place in a {@code <script>} element
+     */
+    public String script(Path file) throws IOException {
+        return processed("js", file, (source, dependencies) -> {
+            String js = SOURCE_MAP.matcher(text(source)).replaceAll("");
+            return CLOSING_SCRIPT.matcher(js).replaceAll("<\\\\/$1");
+        }).text();
+    }
+
+    /**
+     * A {@code data:} URI of the file, or null if its type is not inlined or it is too large
+     */
+    public String dataUri(Path file) throws IOException {
+        String extension = extension(file);
+        if (!INLINED_TYPES.contains(extension) || !Files.isRegularFile(file) || Files.size(file) > MAX_INLINE_SIZE) {
+            return null;
+        }
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return processed("data:" + mediaType, file, (source, dependencies) ->
+                "data:" + mediaType + ";base64," + Base64.getEncoder().encodeToString(source)).text();
+    }
+
+    private String buildStylesheet(Path file, byte[] source, Map<Path, String> dependencies,
+                                   Set<Path> importing) throws IOException {
+        String css = CssMinifier.minify(text(source));
+        String base = urlPath(file);
+
+        StringBuilder out = new StringBuilder(css.length());
+        Matcher imports = IMPORT.matcher(css);
+        int from = 0;
+        while (imports.find()) {
+            out.append(css, from, imports.start());
+            from = imports.end();
+            String url = imports.group(2) != null ? imports.group(2) : imports.group(4);
+            Path imported = resolve(base, stripQuery(url));
+            if (imported == null || importing.contains(imported) || !Files.isRegularFile(imported)) {
+                continue;
+            }
+            Processed nested = stylesheet(imported, importing);
+            dependencies.putAll(nested.dependencies());
+            String media = imports.group(5).trim();
+            out.append(media.isEmpty() ? nested.text() : "@media " + media + "{" + nested.text() + "}");
+        }
+        out.append(css, from, css.length());
+
+        Matcher urls = URL.matcher(out);
+        StringBuilder inlined = new StringBuilder(out.length());
+        while (urls.find()) {
+            String url = urls.group(2);
+            Path target = url.startsWith("data:") ? null : resolve(base, stripQuery(url));
+            String dataUri = target != null ? dataUri(target) : null;
+            if (dataUri != null) {
+                dependencies.put(target, fingerprint(target).hash());
+                urls.appendReplacement(inlined, Matcher.quoteReplacement("url(" + dataUri + ")"));
+            } else {
+                urls.appendReplacement(inlined, Matcher.quoteReplacement(urls.group()));
+            }
+        }
+        urls.appendTail(inlined);
+        return CLOSING_STYLE.matcher(inlined).replaceAll("<\\\\/$1");
+    }
+
+    @FunctionalInterface
+    private interface Builder {
+        /**
+         * @param dependencies holds the file being built on entry; add every other file the
+         *                     result is built from, with its hash
+         */
+        String build(byte[] source, Map<Path, String> dependencies) throws IOException;
+    }
+
+    private Processed processed(String kind, Path file, Builder builder) throws IOException {
+        Fingerprint fingerprint = fingerprint(file);
+        String key = kind + ":" + fingerprint.hash();
+        Processed cached = lookup(key);
+        if (cached != null && isCurrent(cached)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        Map<Path, String> dependencies = new LinkedHashMap<>();
+        dependencies.put(file, fingerprint.hash());
+        String text = builder.build(Files.readAllBytes(file), dependencies);
+        Processed processed = new Processed(text, Map.copyOf(dependencies));
+        store(key, processed);
+        return processed;
+    }
+
+    private boolean isCurrent(Processed processed) throws IOException {
+        for (Map.Entry<Path, String> dependency : processed.dependencies().entrySet()) {
+            if (!Files.isRegularFile(dependency.getKey())
+                    || !fingerprint(dependency.getKey()).hash().equals(dependency.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The content hash of a file, recomputed only when its size or modification time changed
+     */
+    private Fingerprint fingerprint(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        Fingerprint known = fingerprints.get(file);
+        if (known != null && known.size() == size && known.modified() == modified) {
+            return known;
+        }
+        Fingerprint fingerprint = new Fingerprint(size, modified, sha256(Files.readAllBytes(file)));
+        fingerprints.put(file, fingerprint);
+        return fingerprint;
+    }
+
+    private Processed lookup(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String key, Processed processed) {
+        lock.lock();
+        try {
+            Processed previous = entries.put(key, processed);
+            if (previous != null) {
+                weight -= weightOf(previous);
+            }
+            weight += weightOf(processed);
+            Iterator<Processed> it = entries.values().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                weight -= weightOf(it.next());
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.get(), misses.get(), entries.size(), weight, maxWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long weightOf(Processed processed) {
+        return ENTRY_OVERHEAD + 2L * processed.text().length();
+    }
+
+    private static String text(byte[] source) {
+        String text = new String(source, StandardCharsets.UTF_8);
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+
+    private static String stripQuery(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        int fragment = url.indexOf('#');
+        if (query >= 0) {
+            end = query;
+        }
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return url.substring(0, end);
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Fingerprint(long size, long modified, String hash) {}
+
+    private record Processed(String text, Map<Path, String> dependencies) {}
+
+    public record Stats(long hits, long misses, int size, long weight, long maxWeight) {}
+}
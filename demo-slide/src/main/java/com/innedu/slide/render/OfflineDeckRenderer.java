@@ -0,0 +1,111 @@
+package com.innedu.slide.render;
+
+import com.innedu.slide.entity.Template;
+import com.samskivert.mustache.Mustache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a template as one self-contained HTML file for presenting without a connection: the
+ * reveal.js stylesheets and scripts linked by {@code deck.mustache}, the theme with its fonts, and
+ * the images the slides reference are all inlined, so the deck opens with a single request or
+ * straight from disk.
+ *
+ * <p>Shared assets come from {@link OfflineAssetCache} and are processed once for all decks;
+ * rendering a deck only rewrites its own slides. Remote URLs, videos and frames stay links.
+ */
+@Component
+public class OfflineDeckRenderer {
+
+    /** Base URL the slides' relative URLs resolve against, as in deck.mustache. */
+    private static final String DECK_BASE = "/reveal/templates/";
+
+    private static final List<String> STYLESHEETS_BEFORE_THEME = List.of("/reveal/dist/reset.css", "/reveal/dist/reveal.css");
+    private static final List<String> STYLESHEETS_AFTER_THEME = List.of("/reveal/plugin/highlight/monokai.css");
+    private static final List<String> SCRIPTS = List.of(
+            "/reveal/dist/reveal.js",
+            "/reveal/plugin/notes/notes.js",
+            "/reveal/plugin/markdown/markdown.js",
+            "/reveal/plugin/highlight/highlight.js");
+
+    /** Image attributes of slide elements, as inspected by DeckParser */
+    private static final Pattern IMAGE_ATTRIBUTE = Pattern.compile(
+            "(?i)(\\s(?:src|data-src|poster|data-background|data-background-image)\\s*=\\s*)(\"([^\"]*)\"|'([^']*)')");
+
+    private final com.samskivert.mustache.Template offlineTemplate;
+    private final OfflineAssetCache assets;
+
+    public OfflineDeckRenderer(Mustache.Compiler compiler, OfflineAssetCache assets) throws IOException {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("templates/deck-offline.mustache").getInputStream(), StandardCharsets.UTF_8)) {
+            this.offlineTemplate = compiler.compile(reader);
+        }
+        this.assets = assets;
+    }
+
+    /**
+     * The self-contained page as UTF-8 bytes
+     *
+     * @param theme a theme from {@link DeckRenderer#THEMES}
+     */
+    public byte[] render(Template template, String theme) throws IOException {
+        List<String> stylesheets = new ArrayList<>();
+        for (String url : STYLESHEETS_BEFORE_THEME) {
+            stylesheets.add(assets.stylesheet(asset(url)));
+        }
+        stylesheets.add(assets.stylesheet(asset("/reveal/dist/theme/" + theme + ".css")));
+        for (String url : STYLESHEETS_AFTER_THEME) {
+            stylesheets.add(assets.stylesheet(asset(url)));
+        }
+        List<String> scripts = new ArrayList<>();
+        for (String url : SCRIPTS) {
+            scripts.add(assets.script(asset(url)));
+        }
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", template.getDisplayName());
+        model.put("stylesheets", stylesheets);
+        model.put("scripts", scripts);
+        model.put("slides", inlineImages(DeckRenderer.extractSlides(template.getContent())));
+        return offlineTemplate.execute(model).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path asset(String url) throws FileNotFoundException {
+        Path file = assets.resolve(url, url);
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new FileNotFoundException("reveal.js asset not found: " + url);
+        }
+        return file;
+    }
+
+    /**
+     * Replace local image URLs in the slides with data: URIs
+     */
+    String inlineImages(String slides) throws IOException {
+        Matcher matcher = IMAGE_ATTRIBUTE.matcher(slides);
+        StringBuilder out = new StringBuilder(slides.length());
+        while (matcher.find()) {
+            String url = matcher.group(3) != null ? matcher.group(3) : matcher.group(4);
+            Path file = assets.resolve(DECK_BASE, url);
+            String dataUri = file != null ? assets.dataUri(file) : null;
+            String replacement = dataUri != null ? matcher.group(1) + "\"" + dataUri + "\"" : matcher.group();
+            matcher.appendReplacement(out, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.innedu.slide.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate fingerprint of the whole catalog, used as the validator of list responses. Any
+ * create, update or delete changes at least one of the aggregates.
+ */
+public interface CatalogVersion {
+
+    Long getCount();
+
+    LocalDateTime getLastUpdated();
+
+    Long getIdSum();
+
+    Long getVersionSum();
+
+    /**
+     * Weak entity tag for list representations derived from the catalog.
+     */
+    default String etag() {
+        String fingerprint = getCount() + ":" + getLastUpdated() + ":" + getIdSum() + ":" + getVersionSum();
+        return "W/\"catalog-" + Integer.toHexString(fingerprint.hashCode()) + Long.toHexString(getCount()) + "\"";
+    }
+}
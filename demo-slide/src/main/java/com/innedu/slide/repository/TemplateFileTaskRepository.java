@@ -0,0 +1,24 @@
+package com.innedu.slide.repository;
+
+import com.innedu.slide.entity.TemplateFileTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface TemplateFileTaskRepository extends JpaRepository<TemplateFileTask, Long> {
+
+    /**
+     * Oldest pending file tasks first, in insert order across instances
+     */
+    List<TemplateFileTask> findTop500ByOrderBySeqAsc();
+
+    /**
+     * Files with a pending write or delete
+     */
+    @Query("SELECT DISTINCT t.filePath FROM TemplateFileTask t")
+    Set<String> findPendingFilePaths();
+}
@@ -1,23 +1,79 @@
 package com.innedu.slide.repository;
 
+import com.innedu.slide.entity.SlideRange;
 import com.innedu.slide.entity.Template;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface TemplateRepository extends JpaRepository<Template, Long> {
+public interface TemplateRepository extends JpaRepository<Template, Long>, TemplateRepositoryCustom {
     
     /**
-     * Find template by name (case-insensitive)
+     * Find template by normalized name (see {@link Template#normalizeName})
      */
-    Optional<Template> findByNameIgnoreCase(String name);
+    Optional<Template> findByNameNormalized(String nameNormalized);
     
+    /**
+     * Find the template backed by a file; the oldest one if several share it
+     */
+    Optional<Template> findFirstByFilePathOrderByIdAsc(String filePath);
+
+    /**
+     * Find the active templates backed by a file
+     */
+    List<Template> findByFilePathAndIsActiveTrue(String filePath);
+
+    /**
+     * Find the most recently updated active template backed by a file, content included
+     * (names such as "A-B" and "a b" map to one file name)
+     */
+    @EntityGraph(attributePaths = "contentGzip")
+    Optional<Template> findFirstWithContentByFilePathAndIsActiveTrueOrderByUpdatedAtDesc(String filePath);
+    
+    /**
+     * Find template by id, content included
+     */
+    @EntityGraph(attributePaths = "contentGzip")
+    Optional<Template> findWithContentById(Long id);
+
+    /**
+     * Find template by normalized name, content included
+     */
+    @EntityGraph(attributePaths = "contentGzip")
+    Optional<Template> findWithContentByNameNormalized(String nameNormalized);
+    
+    /**
+     * Find template by id with its slide ranges and assets
+     */
+    @EntityGraph(attributePaths = {"slides", "assets"})
+    Optional<Template> findWithStructureById(Long id);
+
+    /**
+     * Byte range of one slide, provided the template is still at the given version
+     */
+    @Query("SELECT s FROM Template t JOIN t.slides s WHERE t.id = :id AND t.version = :version AND INDEX(s) = :index")
+    Optional<SlideRange> findSlide(@Param("id") Long id, @Param("version") Long version, @Param("index") int index);
+
+    /**
+     * Ids of templates whose structure has not been parsed yet
+     */
+    @Query("SELECT t.id FROM Template t WHERE t.slideCount IS NULL")
+    List<Long> findIdsWithoutStructure();
+
     /**
      * Find all active templates
      */
@@ -34,15 +90,67 @@ public interface TemplateRepository extends JpaRepository<Template, Long> {
     List<Template> findByThemeAndIsActiveTrue(String theme);
     
     /**
-     * Check if template exists by name (case-insensitive)
+     * Check if template exists by normalized name
      */
-    boolean existsByNameIgnoreCase(String name);
-    
+    boolean existsByNameNormalized(String nameNormalized);
+
     /**
-     * Find templates by display name containing text (case-insensitive)
+     * Which of the given normalized names are already taken, in one query
      */
-    @Query("SELECT t FROM Template t WHERE LOWER(t.displayName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    List<Template> findByDisplayNameContainingOrDescriptionContainingIgnoreCase(String searchText);
+    @Query("SELECT t.nameNormalized FROM Template t WHERE t.nameNormalized IN :names")
+    Set<String> findTakenNamesNormalized(@Param("names") Collection<String> names);
 
+    /**
+     * Check if a template is backed by the given file
+     */
+    boolean existsByFilePath(String filePath);
+
+    /**
+     * Which of the given file paths already back a template, in one query
+     */
+    @Query("SELECT t.filePath FROM Template t WHERE t.filePath IN :filePaths")
+    Set<String> findTakenFilePaths(@Param("filePaths") Collection<String> filePaths);
+
+    /**
+     * File sync state of every template, in one query (used to reconcile the directory)
+     */
+    List<TemplateSyncState> findSyncStatesBy();
+    
     Page<Template> findAllByOrderByCreatedAtDesc(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Find all template summaries ordered by creation date
+     */
+    List<TemplateSummary> findSummariesByOrderByCreatedAtDesc();
+
+    /**
+     * Find all active template summaries
+     */
+    List<TemplateSummary> findSummariesByIsActiveTrue();
+
+    /**
+     * Find the cache validators of a template by id
+     */
+    Optional<TemplateValidators> findValidatorsById(Long id);
+
+    /**
+     * Find the cache validators of a template by normalized name
+     */
+    Optional<TemplateValidators> findValidatorsByNameNormalized(String nameNormalized);
+
+    /**
+     * Aggregate version of the whole catalog
+     */
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastUpdated, "
+        + "COALESCE(SUM(t.id), 0) AS idSum, COALESCE(SUM(t.version), 0) AS versionSum FROM Template t")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Stream all templates, content included, ordered by id. Must be consumed inside a
+     * transaction; callers should detach entities as they go to keep memory flat.
+     */
+    @EntityGraph(attributePaths = "contentGzip")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "50"))
+    @Query("SELECT t FROM Template t ORDER BY t.id")
+    Stream<Template> streamAll();
+}
@@ -0,0 +1,16 @@
+package com.innedu.slide.repository;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+public interface TemplateRepositoryCustom {
+
+    /**
+     * One keyset-paginated window of template summaries, ordered by {@code key} then id.
+     * Rows after {@code position} are found with a row-value comparison so the index can seek
+     * straight to them; no count query is issued.
+     */
+    Window<TemplateSummary> findSummariesAfter(TemplateSortKey key, Sort.Direction direction,
+                                               KeysetScrollPosition position, int limit);
+}
@@ -0,0 +1,70 @@
+package com.innedu.slide.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TemplateRepositoryImpl implements TemplateRepositoryCustom {
+
+    private static final String SELECT_SUMMARY = "SELECT t.id, t.name, t.displayName, t.description, t.filePath, "
+            + "t.theme, t.isActive, t.createdAt, t.updatedAt, t.version FROM Template t";
+
+    private final EntityManager entityManager;
+
+    TemplateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Window<TemplateSummary> findSummariesAfter(TemplateSortKey key, Sort.Direction direction,
+                                                      KeysetScrollPosition position, int limit) {
+        // Property names come from the TemplateSortKey whitelist, never from the request
+        String property = "t." + key.property();
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        String comparison = direction.isAscending() ? ">" : "<";
+        Map<String, Object> keys = position.getKeys();
+
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARY);
+        if (!keys.isEmpty()) {
+            jpql.append(key == TemplateSortKey.ID
+                    ? " WHERE t.id " + comparison + " :id"
+                    : " WHERE (" + property + ", t.id) " + comparison + " (:value, :id)");
+        }
+        jpql.append(" ORDER BY ").append(property).append(' ').append(order);
+        if (key != TemplateSortKey.ID) {
+            jpql.append(", t.id ").append(order);
+        }
+
+        TypedQuery<Row> query = entityManager.createQuery(jpql.toString(), Row.class);
+        if (!keys.isEmpty()) {
+            query.setParameter("id", keys.get(TemplateSortKey.ID.property()));
+            if (key != TemplateSortKey.ID) {
+                query.setParameter("value", keys.get(key.property()));
+            }
+        }
+        // One extra row tells whether there is a next window
+        List<Row> rows = query.setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<TemplateSummary> content = List.copyOf(hasNext ? rows.subList(0, limit) : rows);
+        return Window.from(content, index -> positionOf(key, content.get(index)), hasNext);
+    }
+
+    private static ScrollPosition positionOf(TemplateSortKey key, TemplateSummary summary) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(key.property(), key.valueOf(summary));
+        keys.put(TemplateSortKey.ID.property(), summary.getId());
+        return ScrollPosition.forward(keys);
+    }
+
+    record Row(Long getId, String getName, String getDisplayName, String getDescription, String getFilePath,
+               String getTheme, Boolean getIsActive, LocalDateTime getCreatedAt, LocalDateTime getUpdatedAt,
+               Long getVersion) implements TemplateSummary {}
+}
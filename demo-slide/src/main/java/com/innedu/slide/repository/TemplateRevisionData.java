@@ -0,0 +1,8 @@
+package com.innedu.slide.repository;
+
+import com.innedu.slide.entity.TemplateRevision;
+
+/**
+ * What is needed to rebuild a revision: its stored data and the hash to check the result against
+ */
+public record TemplateRevisionData(Long revision, TemplateRevision.Kind kind, byte[] data, String contentHash) {}
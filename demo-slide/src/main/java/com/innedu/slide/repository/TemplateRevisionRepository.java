@@ -0,0 +1,41 @@
+package com.innedu.slide.repository;
+
+import com.innedu.slide.entity.TemplateRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TemplateRevisionRepository extends JpaRepository<TemplateRevision, Long> {
+
+    /**
+     * Newest revision of a template, without its data
+     */
+    Optional<TemplateRevisionSummary> findFirstByTemplateIdOrderByRevisionDesc(Long templateId);
+
+    List<TemplateRevisionSummary> findByTemplateIdOrderByRevisionDesc(Long templateId);
+
+    /**
+     * The snapshot a revision is rebuilt from, i.e. the newest one at or before it
+     */
+    @Query("""
+            SELECT MAX(r.revision) FROM TemplateRevision r
+            WHERE r.templateId = :templateId AND r.kind = com.innedu.slide.entity.TemplateRevision.Kind.SNAPSHOT
+              AND r.revision <= :revision""")
+    Optional<Long> findSnapshotRevision(@Param("templateId") Long templateId, @Param("revision") Long revision);
+
+    /**
+     * Stored data of the revisions in {@code [from, to]}, oldest first
+     */
+    @Query("""
+            SELECT new com.innedu.slide.repository.TemplateRevisionData(r.revision, r.kind, r.data, r.contentHash)
+            FROM TemplateRevision r
+            WHERE r.templateId = :templateId AND r.revision BETWEEN :from AND :to
+            ORDER BY r.revision""")
+    List<TemplateRevisionData> findChain(@Param("templateId") Long templateId, @Param("from") Long from,
+                                         @Param("to") Long to);
+}
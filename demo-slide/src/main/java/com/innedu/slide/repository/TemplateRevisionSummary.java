@@ -0,0 +1,25 @@
+package com.innedu.slide.repository;
+
+import com.innedu.slide.entity.TemplateRevision;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revision metadata without the stored data
+ */
+public interface TemplateRevisionSummary {
+
+    Long getRevision();
+
+    TemplateRevision.Kind getKind();
+
+    Integer getChainLength();
+
+    Integer getStoredBytes();
+
+    Integer getContentLength();
+
+    String getContentHash();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,58 @@
+package com.innedu.slide.repository;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Sort keys accepted by the template listing. Each is backed by an index ending in {@code id},
+ * which is always appended as a tiebreaker so that keyset pagination has a total order.
+ */
+public enum TemplateSortKey {
+    ID("id", TemplateSummary::getId, Long::valueOf),
+    CREATED_AT("createdAt", TemplateSummary::getCreatedAt, LocalDateTime::parse),
+    UPDATED_AT("updatedAt", TemplateSummary::getUpdatedAt, LocalDateTime::parse),
+    NAME("name", TemplateSummary::getName, value -> value),
+    DISPLAY_NAME("displayName", TemplateSummary::getDisplayName, value -> value);
+
+    private final String property;
+    private final Function<TemplateSummary, Object> extractor;
+    private final Function<String, Object> parser;
+
+    TemplateSortKey(String property, Function<TemplateSummary, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * The key value of a row
+     */
+    public Object valueOf(TemplateSummary summary) {
+        return extractor.apply(summary);
+    }
+
+    /**
+     * Parse a key value back from its {@code toString()} form
+     */
+    public Object parseValue(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Look up a key by its property name, case-insensitively
+     */
+    public static TemplateSortKey fromProperty(String property) {
+        String wanted = property.trim().toLowerCase(Locale.ROOT);
+        for (TemplateSortKey key : values()) {
+            if (key.property.toLowerCase(Locale.ROOT).equals(wanted)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + property);
+    }
+}
@@ -0,0 +1,30 @@
+package com.innedu.slide.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Content-free view of a template. Closed projection, so queries returning it never select the
+ * {@code content} column.
+ */
+public interface TemplateSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getDisplayName();
+
+    String getDescription();
+
+    String getFilePath();
+
+    String getTheme();
+
+    Boolean getIsActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+}
@@ -0,0 +1,20 @@
+package com.innedu.slide.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the directory sync needs to know about a stored template to decide whether its file
+ * changed, without loading content.
+ */
+public interface TemplateSyncState {
+
+    Long getId();
+
+    String getFilePath();
+
+    String getContentHash();
+
+    Boolean getIsActive();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,44 @@
+package com.innedu.slide.repository;
+
+import com.innedu.slide.entity.Template;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * HTTP cache validators of a template: enough to answer a conditional GET without loading
+ * {@code content}.
+ */
+public interface TemplateValidators {
+
+    Long getId();
+
+    Long getVersion();
+
+    String getContentHash();
+
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * Strong entity tag: changes whenever the content or any other field is written.
+     */
+    default String etag() {
+        String hash = getContentHash() != null ? getContentHash().substring(0, 16) : "0";
+        return "\"" + hash + "-" + getVersion() + "\"";
+    }
+
+    /**
+     * {@code updatedAt} as epoch millis, or -1 when unknown.
+     */
+    default long lastModified() {
+        LocalDateTime updatedAt = getUpdatedAt();
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static TemplateValidators of(Template template) {
+        return new Snapshot(template.getId(), template.getVersion(), template.getContentHash(), template.getUpdatedAt());
+    }
+
+    record Snapshot(Long getId, Long getVersion, String getContentHash, LocalDateTime getUpdatedAt)
+            implements TemplateValidators {}
+}
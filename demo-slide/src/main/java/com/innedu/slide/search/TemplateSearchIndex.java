@@ -0,0 +1,438 @@
+package com.innedu.slide.search;
+
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
+import com.innedu.slide.repository.TemplateRepository;
+import com.innedu.slide.repository.TemplateSummary;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over template display name, description and slide text.
+ *
+ * <p>Terms are accent-folded (see {@link TextNormalizer}) so "tieng viet" matches "Tiếng Việt".
+ * Every query term must match, either exactly or as a prefix of an indexed term; hits are ranked
+ * with BM25F, display name weighing more than description, description more than slide text.
+ *
+ * <p>The index is rebuilt from the database on startup and then kept current from
+ * {@link TemplateChangedEvent}s after each commit.
+ */
+@Component
+public class TemplateSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateSearchIndex.class);
+
+    private static final int DISPLAY_NAME = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int CONTENT = 2;
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0};
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 60;
+
+    private final TemplateRepository templateRepository;
+    private final EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, IndexedTemplate> documents = new HashMap<>();
+    private final long[] totalFieldLength = new long[3];
+
+    public TemplateSearchIndex(TemplateRepository templateRepository, EntityManager entityManager) {
+        this.templateRepository = templateRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Re-index every template from the database
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        clear();
+        int count = 0;
+        try (Stream<Template> templates = templateRepository.streamAll()) {
+            Iterator<Template> it = templates.iterator();
+            while (it.hasNext()) {
+                Template template = it.next();
+                put(TemplateChangedEvent.created(template));
+                entityManager.detach(template);
+                count++;
+            }
+        }
+        logger.info("Search index rebuilt: {} templates, {} terms in {} ms",
+                count, termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (event.getType() == TemplateChangedEvent.Type.DELETED) {
+            remove(event.getId());
+        } else {
+            put(event);
+        }
+    }
+
+    /**
+     * Search the index. An empty query lists every template, most recent first.
+     *
+     * @param page zero-based page number
+     */
+    public SearchResult search(String query, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(
+                TextNormalizer.tokenize(TextNormalizer.fold(TextNormalizer.nfc(query == null ? "" : query.trim())))));
+        int from = Math.max(page, 0) * size;
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                List<IndexedTemplate> all = new ArrayList<>(documents.values());
+                all.sort(Comparator.comparing(IndexedTemplate::getCreatedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+                List<SearchHit> hits = new ArrayList<>();
+                for (int i = from; i < Math.min(from + size, all.size()); i++) {
+                    hits.add(new SearchHit(all.get(i), 0, all.get(i).getDescription()));
+                }
+                return new SearchResult(all.size(), hits);
+            }
+
+            List<Map<String, Double>> expansions = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                expansions.add(expand(term));
+            }
+
+            Map<Long, Double> scores = null;
+            for (Map<String, Double> expansion : expansions) {
+                Map<Long, Double> termScores = scoreTerm(expansion);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> merged = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        Double other = termScores.get(e.getKey());
+                        if (other != null) {
+                            merged.put(e.getKey(), e.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (int i = from; i < Math.min(from + size, ranked.size()); i++) {
+                IndexedTemplate doc = documents.get(ranked.get(i).getKey());
+                hits.add(new SearchHit(doc, ranked.get(i).getValue(), snippet(doc, expansions)));
+            }
+            return new SearchResult(ranked.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            Arrays.fill(totalFieldLength, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(TemplateChangedEvent event) {
+        // Text extraction is the expensive part; keep it outside the lock
+        String extracted = event.getContent() != null ? TextNormalizer.htmlToText(event.getContent()) : null;
+        String extractedFolded = extracted != null ? TextNormalizer.fold(extracted) : null;
+
+        lock.writeLock().lock();
+        try {
+            IndexedTemplate previous = removeLocked(event.getId());
+            String text = "";
+            String foldedText = "";
+            if (extracted != null) {
+                text = extracted;
+                foldedText = extractedFolded;
+            } else if (previous != null) {
+                text = previous.text;
+                foldedText = previous.foldedText;
+            }
+            IndexedTemplate doc = new IndexedTemplate(event, text, foldedText);
+            addTerms(doc, DISPLAY_NAME, TextNormalizer.fold(TextNormalizer.nfc(event.getDisplayName())));
+            addTerms(doc, DESCRIPTION, TextNormalizer.fold(TextNormalizer.nfc(event.getDescription())));
+            addTerms(doc, CONTENT, foldedText);
+            documents.put(doc.getId(), doc);
+            for (String term : doc.termFrequencies.keySet()) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(doc.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private IndexedTemplate removeLocked(Long id) {
+        IndexedTemplate doc = documents.remove(id);
+        if (doc == null) {
+            return null;
+        }
+        for (String term : doc.termFrequencies.keySet()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (int field = 0; field < totalFieldLength.length; field++) {
+            totalFieldLength[field] -= doc.fieldLengths[field];
+        }
+        return doc;
+    }
+
+    private void addTerms(IndexedTemplate doc, int field, String folded) {
+        List<String> terms = TextNormalizer.tokenize(folded);
+        for (String term : terms) {
+            doc.termFrequencies.computeIfAbsent(term, t -> new int[3])[field]++;
+        }
+        doc.fieldLengths[field] = terms.size();
+        totalFieldLength[field] += terms.size();
+    }
+
+    /**
+     * Indexed terms matching a query term: the term itself at full weight, terms it is a prefix
+     * of at reduced weight.
+     */
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expansion = new HashMap<>();
+        if (postings.containsKey(term)) {
+            expansion.put(term, 1.0);
+        }
+        int expanded = 0;
+        for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+            if (++expanded > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansion.put(candidate, PREFIX_MATCH_FACTOR);
+        }
+        return expansion;
+    }
+
+    private Map<Long, Double> scoreTerm(Map<String, Double> expansion) {
+        int n = documents.size();
+        double[] averageLength = new double[3];
+        for (int field = 0; field < 3; field++) {
+            averageLength[field] = n == 0 ? 1 : Math.max(1.0, (double) totalFieldLength[field] / n);
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> e : expansion.entrySet()) {
+            Set<Long> ids = postings.get(e.getKey());
+            double idf = Math.log(1 + (n - ids.size() + 0.5) / (ids.size() + 0.5));
+            for (Long id : ids) {
+                IndexedTemplate doc = documents.get(id);
+                int[] tf = doc.termFrequencies.get(e.getKey());
+                double weighted = 0;
+                for (int field = 0; field < 3; field++) {
+                    if (tf[field] > 0) {
+                        double norm = 1 - B + B * doc.fieldLengths[field] / averageLength[field];
+                        weighted += FIELD_WEIGHTS[field] * tf[field] / norm;
+                    }
+                }
+                double score = e.getValue() * idf * weighted * (K1 + 1) / (weighted + K1);
+                scores.merge(id, score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private String snippet(IndexedTemplate doc, List<Map<String, Double>> expansions) {
+        String folded = doc.foldedText;
+        int position = -1;
+        for (Map<String, Double> expansion : expansions) {
+            for (String term : expansion.keySet()) {
+                int found = indexOfWord(folded, term);
+                if (found >= 0 && (position < 0 || found < position)) {
+                    position = found;
+                }
+            }
+        }
+        if (position < 0) {
+            return doc.getDescription() != null ? doc.getDescription() : cut(doc.text, 0);
+        }
+        return cut(doc.text, Math.max(0, position - SNIPPET_LEAD));
+    }
+
+    private static int indexOfWord(String text, String term) {
+        int from = 0;
+        while (true) {
+            int found = text.indexOf(term, from);
+            if (found <= 0 || !Character.isLetterOrDigit(text.charAt(found - 1))) {
+                return found;
+            }
+            from = found + 1;
+        }
+    }
+
+    private static String cut(String text, int start) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (start > 0) {
+            int space = text.indexOf(' ', start);
+            start = (space < 0 || space - start > SNIPPET_LEAD / 2) ? start : space + 1;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        if (end < text.length()) {
+            int space = text.lastIndexOf(' ', end);
+            end = space > start ? space : end;
+        }
+        return (start > 0 ? "…" : "") + text.substring(start, end) + (end < text.length() ? "…" : "");
+    }
+
+    /**
+     * One ranked match; {@code snippet} is a short excerpt of the slide text around the first match.
+     */
+    public record SearchHit(TemplateSummary template, double score, String snippet) {}
+
+    public record SearchResult(long totalHits, List<SearchHit> hits) {}
+
+    private static final class IndexedTemplate implements TemplateSummary {
+        private final Long id;
+        private final String name;
+        private final String displayName;
+        private final String description;
+        private final String filePath;
+        private final String theme;
+        private final Boolean isActive;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final Long version;
+        private final String text;
+        private final String foldedText;
+        private final Map<String, int[]> termFrequencies = new HashMap<>();
+        private final int[] fieldLengths = new int[3];
+
+        private IndexedTemplate(TemplateChangedEvent event, String text, String foldedText) {
+            this.id = event.getId();
+            this.name = event.getName();
+            this.displayName = event.getDisplayName();
+            this.description = event.getDescription();
+            this.filePath = event.getFilePath();
+            this.theme = event.getTheme();
+            this.isActive = event.getIsActive();
+            this.createdAt = event.getCreatedAt();
+            this.updatedAt = event.getUpdatedAt();
+            this.version = event.getVersion();
+            this.text = text;
+            this.foldedText = foldedText;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getFilePath() {
+            return filePath;
+        }
+
+        @Override
+        public String getTheme() {
+            return theme;
+        }
+
+        @Override
+        public Boolean getIsActive() {
+            return isActive;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
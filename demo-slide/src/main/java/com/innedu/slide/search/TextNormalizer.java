@@ -0,0 +1,114 @@
+package com.innedu.slide.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Text helpers shared by indexing and querying: HTML-to-text extraction, accent folding and
+ * tokenization.
+ *
+ * <p>Folding is done char by char and never changes the length of the (NFC) input, so an offset
+ * found in folded text is also valid in the original text. That is what lets snippets be cut
+ * from the original without a second mapping.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern SCRIPT_OR_STYLE =
+            Pattern.compile("(?is)<(script|style)\\b.*?</\\1\\s*>");
+    private static final Pattern COMMENT = Pattern.compile("(?s)<!--.*?-->");
+    private static final Pattern TAG = Pattern.compile("(?s)<[^>]*>");
+    private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextNormalizer() {}
+
+    /**
+     * Extract the visible text of an HTML document: scripts, styles, comments and tags are
+     * dropped, common entities decoded and whitespace collapsed.
+     */
+    public static String htmlToText(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = COMMENT.matcher(text).replaceAll(" ");
+        text = TAG.matcher(text).replaceAll(" ");
+        text = decodeEntities(text);
+        return nfc(WHITESPACE.matcher(text).replaceAll(" ").trim());
+    }
+
+    /**
+     * Compose to NFC so that folding keeps offsets aligned with the original.
+     */
+    public static String nfc(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.isNormalized(text, Normalizer.Form.NFC)
+                ? text
+                : Normalizer.normalize(text, Normalizer.Form.NFC);
+    }
+
+    /**
+     * Lowercase and strip diacritics, one char in, one char out ("Tiếng Việt" -> "tieng viet").
+     */
+    public static String fold(String text) {
+        char[] out = new char[text.length()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = foldChar(text.charAt(i));
+        }
+        return new String(out);
+    }
+
+    static char foldChar(char c) {
+        if (c < 128) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+        }
+        if (c == 'đ' || c == 'Đ') {
+            return 'd';
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+
+    /**
+     * Split already folded text into terms (runs of letters and digits).
+     */
+    public static List<String> tokenize(String folded) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        text = text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'");
+        text = NUMERIC_ENTITY.matcher(text).replaceAll(match -> {
+            try {
+                int codePoint = Integer.parseInt(match.group(2), match.group(1).isEmpty() ? 10 : 16);
+                return Matcher.quoteReplacement(new String(Character.toChars(codePoint)));
+            } catch (IllegalArgumentException e) {
+                return " ";
+            }
+        });
+        return text.replace("&amp;", "&");
+    }
+}
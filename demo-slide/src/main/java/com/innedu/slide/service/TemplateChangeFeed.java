@@ -0,0 +1,327 @@
+package com.innedu.slide.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.dto.TemplateChangeResponse;
+import com.innedu.slide.event.TemplateChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live feed of committed template changes, sent to editor and gallery clients as Server-Sent
+ * Events so they no longer poll the catalog.
+ *
+ * <p>Every change gets the next sequence number and is kept in a ring buffer of the last
+ * {@code app.changes.history} changes. Event ids carry the sequence and a token of this run, so a
+ * client reconnecting with {@code Last-Event-ID} is sent the changes it missed; if they are no
+ * longer buffered, or the id is from before a restart, it gets a {@code reset} event and reloads
+ * the catalog instead.
+ *
+ * <p>Each change is serialized once and queued per subscriber; a small pool of sender threads
+ * writes the queues, so a slow client holds up neither the writing transaction nor other clients.
+ * A subscriber with {@code app.changes.subscriber-buffer} events queued is disconnected, and catches
+ * up when it reconnects. A comment every {@code app.changes.heartbeat-seconds} keeps idle
+ * connections open through proxies and finds closed ones.
+ */
+@Component
+public class TemplateChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateChangeFeed.class);
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+
+    /** Reconnection delay suggested to clients */
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private static final int SENDER_THREADS = 4;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    /** Tells ids of this run from those of an earlier one */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Change[] history;
+    private long lastSequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong disconnectedSlow = new AtomicLong();
+
+    public TemplateChangeFeed(ObjectMapper objectMapper,
+                              BackgroundThreads backgroundThreads,
+                              @Value("${app.changes.history:1024}") int historySize,
+                              @Value("${app.changes.subscriber-buffer:256}") int bufferSize,
+                              @Value("${app.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+                              @Value("${app.changes.timeout-ms:1800000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.history = new Change[historySize];
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.senders = Executors.newFixedThreadPool(SENDER_THREADS, backgroundThreads.factory("template-change-feed"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("template-change-heartbeat"));
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a subscription. Without {@code lastEventId} it starts from the current position, which
+     * the first message carries as its id.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        lock.lock();
+        try {
+            long resumeFrom = lastEventId == null || lastEventId.isBlank() ? lastSequence : sequenceOf(lastEventId);
+            if (resumeFrom < 0 || resumeFrom > lastSequence || resumeFrom < lastSequence - history.length) {
+                resets.incrementAndGet();
+                subscriber.offer(frame(SseEmitter.event().id(idOf(lastSequence)).name(RESET_EVENT)
+                        .reconnectTime(RECONNECT_MILLIS).data(RESET_EVENT)), false);
+            } else {
+                subscriber.offer(frame(SseEmitter.event().id(idOf(resumeFrom))
+                        .reconnectTime(RECONNECT_MILLIS).comment("connected")), false);
+                for (long sequence = resumeFrom + 1; sequence <= lastSequence; sequence++) {
+                    subscriber.offer(history[slot(sequence)].frame(), false);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(TemplateChangeResponse.from(event));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize change of template {}", event.getId(), e);
+            return;
+        }
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            Change change = new Change(frame(SseEmitter.event().id(idOf(sequence)).name(CHANGE_EVENT).data(json)));
+            history[slot(sequence)] = change;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(change.frame(), true)) {
+                    disconnectSlow(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = frame(SseEmitter.event().comment("heartbeat"));
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(heartbeat, true)) {
+                disconnectSlow(subscriber);
+            }
+        }
+    }
+
+    private void disconnectSlow(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            disconnectedSlow.incrementAndGet();
+            logger.info("Disconnected a change feed subscriber with {} events queued", bufferSize);
+            subscriber.close();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed();
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(subscribers.size(), lastSequence, resets.get(), disconnectedSlow.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+
+    private String idOf(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * The sequence in an event id of this run, or -1
+     */
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % history.length);
+    }
+
+    /**
+     * An event as written, built once and shared by all subscribers
+     */
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(SseEmitter.SseEventBuilder event) {
+        return Collections.unmodifiableSet(event.build());
+    }
+
+    private record Change(Set<ResponseBodyEmitter.DataWithMediaType> frame) {}
+
+    public record Stats(int subscribers, long lastSequence, long resets, long disconnectedSlow) {}
+
+    /**
+     * One connection: its queued frames, written in order by at most one sender at a time
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        // Guards the queue and flags below
+        private final ReentrantLock stateLock = new ReentrantLock();
+        private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closing;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queue a frame, unless the subscriber is closed; false if {@code bounded} and its buffer is full
+         */
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> frame, boolean bounded) {
+            stateLock.lock();
+            try {
+                if (closing || closed) {
+                    return true;
+                }
+                if (bounded && queue.size() >= bufferSize) {
+                    return false;
+                }
+                queue.add(frame);
+                schedule();
+                return true;
+            } finally {
+                stateLock.unlock();
+            }
+        }
+
+        /**
+         * Drop what is queued and complete the response from a sender thread, never blocking the caller
+         */
+        void close() {
+            stateLock.lock();
+            try {
+                if (!closing && !closed) {
+                    closing = true;
+                    queue.clear();
+                    schedule();
+                }
+            } finally {
+                stateLock.unlock();
+            }
+        }
+
+        /**
+         * The response is finished: stop sending
+         */
+        void closed() {
+            stateLock.lock();
+            try {
+                closed = true;
+                queue.clear();
+            } finally {
+                stateLock.unlock();
+            }
+        }
+
+        // Called holding stateLock
+        private void schedule() {
+            if (!scheduled) {
+                scheduled = true;
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled = false;
+                    closed = true;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                stateLock.lock();
+                try {
+                    frame = closing || closed ? null : queue.poll();
+                    if (frame == null) {
+                        scheduled = false;
+                        if (closing && !closed) {
+                            closed = true;
+                            break;
+                        }
+                        return;
+                    }
+                } finally {
+                    stateLock.unlock();
+                }
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone; the container reports it through onError or onCompletion
+                    remove(this);
+                    return;
+                }
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.innedu.slide.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.innedu.slide.repository.TemplateSortKey;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset pagination over templates.
+ *
+ * <p>The token carries the sort and the key values of the last row returned, so the next slice
+ * starts right after it with an index seek instead of an offset. It is base64url-encoded JSON;
+ * clients must treat it as opaque.
+ */
+public record TemplateCursor(TemplateSortKey key, Sort.Direction direction, Map<String, Object> keys) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The first slice for the given sort
+     */
+    public static TemplateCursor first(TemplateSortKey key, Sort.Direction direction) {
+        return new TemplateCursor(key, direction, Map.of());
+    }
+
+    public KeysetScrollPosition scrollPosition() {
+        return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+    }
+
+    /**
+     * The cursor continuing after the given position
+     */
+    public TemplateCursor after(ScrollPosition position) {
+        return new TemplateCursor(key, direction, ((KeysetScrollPosition) position).getKeys());
+    }
+
+    public String encode() {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("s", key.property());
+        node.put("d", direction.name());
+        ObjectNode values = node.putObject("k");
+        keys.forEach((property, value) -> values.put(property, value.toString()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}; throws IllegalArgumentException if it is malformed
+     */
+    public static TemplateCursor decode(String token) {
+        try {
+            JsonNode node = MAPPER.readTree(Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII)));
+            TemplateSortKey key = TemplateSortKey.fromProperty(node.path("s").asText());
+            Sort.Direction direction = Sort.Direction.fromString(node.path("d").asText());
+            Map<String, Object> keys = new LinkedHashMap<>();
+            JsonNode values = node.path("k");
+            keys.put(key.property(), key.parseValue(values.path(key.property()).asText()));
+            if (key != TemplateSortKey.ID) {
+                keys.put(TemplateSortKey.ID.property(),
+                        TemplateSortKey.ID.parseValue(values.path(TemplateSortKey.ID.property()).asText()));
+            }
+            return new TemplateCursor(key, direction, keys);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
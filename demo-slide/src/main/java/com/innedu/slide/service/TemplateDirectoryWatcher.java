@@ -0,0 +1,237 @@
+package com.innedu.slide.service;
+
+import com.innedu.slide.cluster.ClusterLock;
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.metrics.TemplateMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the database in sync with {@code app.templates.path} as files are added, changed or
+ * removed, without rescanning the directory.
+ *
+ * <p>Watch events are collected until the directory has been quiet for the debounce interval, so a
+ * burst of events for the same file results in one sync. A file whose size and modification time
+ * are unchanged is skipped without being read; otherwise its content hash is compared with the
+ * stored one. Files with a write still queued, and files holding exactly what the file writer last
+ * wrote, are left alone: the database is ahead of them, and syncing them would roll it back.
+ * Deleting a file deactivates its template rather than deleting the row.
+ *
+ * <p>In clustered mode each instance watches the shared directory and sees the same events; syncs
+ * run under {@link ClusterLock#TEMPLATE_SYNC}, so only the first instance applies a change and the
+ * others find the database already up to date.
+ */
+@Component
+public class TemplateDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateDirectoryWatcher.class);
+
+    private final TemplateService templateService;
+    private final TemplateFileWriter fileWriter;
+    private final TemplateMetrics metrics;
+    private final ClusterLock clusterLock;
+    private final Path templatesDir;
+    private final boolean enabled;
+    private final long debounceMillis;
+
+    // Last seen size and mtime per file name; only touched by the watcher thread
+    private final Map<String, FileStamp> stamps = new HashMap<>();
+
+    private final ExecutorService executor;
+    private volatile WatchService watchService;
+
+    public TemplateDirectoryWatcher(TemplateService templateService,
+                                    TemplateFileWriter fileWriter,
+                                    BackgroundThreads backgroundThreads,
+                                    TemplateMetrics metrics,
+                                    ClusterLock clusterLock,
+                                    @Value("${app.templates.path:../reveal.js/templates}") String templatesPath,
+                                    @Value("${app.templates.watch.enabled:true}") boolean enabled,
+                                    @Value("${app.templates.watch.debounce-ms:300}") long debounceMillis) {
+        this.templateService = templateService;
+        this.fileWriter = fileWriter;
+        this.metrics = metrics;
+        this.clusterLock = clusterLock;
+        this.templatesDir = Paths.get(templatesPath);
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+        this.executor = Executors.newSingleThreadExecutor(backgroundThreads.factory("template-dir-watcher"));
+    }
+
+    /**
+     * Start watching once the startup import has run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!Files.isDirectory(templatesDir)) {
+            logger.warn("Templates directory does not exist, not watching: {}", templatesDir);
+            return;
+        }
+        try {
+            watchService = templatesDir.getFileSystem().newWatchService();
+            templatesDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            // Remember the current state so that files imported at startup are not re-read
+            for (String fileName : listTemplateFiles()) {
+                FileStamp stamp = stat(fileName);
+                if (stamp != null) {
+                    stamps.put(fileName, stamp);
+                }
+            }
+            executor.execute(this::watch);
+            logger.info("Watching {} for template changes", templatesDir.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to watch templates directory: {}", templatesDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        WatchService service = watchService;
+        if (service != null) {
+            service.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<String> pending = new LinkedHashSet<>();
+                boolean rescan = collect(watchService.take(), pending);
+                // Debounce: keep coalescing until no event arrives for the whole interval
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    rescan |= collect(key, pending);
+                }
+                if (rescan) {
+                    pending.addAll(listTemplateFiles());
+                    pending.addAll(stamps.keySet());
+                }
+                sync(pending);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Shutting down
+        } catch (RuntimeException | IOException e) {
+            logger.error("Template directory watcher stopped", e);
+        }
+    }
+
+    /**
+     * Add the file names of a key's events to {@code pending}; returns true if events were lost
+     */
+    private boolean collect(WatchKey key, Set<String> pending) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            String fileName = ((Path) event.context()).toString();
+            if (isTemplateFile(fileName)) {
+                pending.add(fileName);
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    private void sync(Set<String> fileNames) {
+        int changed = 0;
+        for (String fileName : fileNames) {
+            try {
+                if (clusterLock.call(ClusterLock.TEMPLATE_SYNC, () -> syncFile(fileName))) {
+                    changed++;
+                }
+            } catch (Exception e) {
+                // Forget the stamp so the next event for this file retries it
+                stamps.remove(fileName);
+                logger.error("Failed to sync template file: {}", fileName, e);
+            }
+        }
+        logger.debug("Directory sync: {} event file(s), {} template(s) changed", fileNames.size(), changed);
+    }
+
+    private boolean syncFile(String fileName) throws IOException {
+        FileStamp stamp = stat(fileName);
+        if (stamp == null) {
+            stamps.remove(fileName);
+            return templateService.deactivateTemplateFile(fileName);
+        }
+        if (stamp.equals(stamps.get(fileName))) {
+            return false;
+        }
+        String content;
+        try {
+            content = metrics.readFile(templatesDir.resolve(fileName));
+        } catch (NoSuchFileException e) {
+            stamps.remove(fileName);
+            return templateService.deactivateTemplateFile(fileName);
+        }
+        if (fileWriter.isOwnWrite(fileName, content) || fileWriter.pendingFilePaths().contains(fileName)) {
+            stamps.put(fileName, stamp);
+            return false;
+        }
+        boolean changed = templateService.syncTemplateFile(fileName, content);
+        stamps.put(fileName, stamp);
+        return changed;
+    }
+
+    private FileStamp stat(String fileName) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(templatesDir.resolve(fileName), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis())
+                    : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private Set<String> listTemplateFiles() throws IOException {
+        Set<String> fileNames = new LinkedHashSet<>();
+        try (Stream<Path> listing = Files.list(templatesDir)) {
+            listing.map(path -> path.getFileName().toString())
+                    .filter(TemplateDirectoryWatcher::isTemplateFile)
+                    .forEach(fileNames::add);
+        }
+        return fileNames;
+    }
+
+    /**
+     * HTML files only; dot files include the file writer's temp files
+     */
+    private static boolean isTemplateFile(String fileName) {
+        return fileName.endsWith(".html") && !fileName.startsWith(".");
+    }
+
+    private record FileStamp(long size, long lastModifiedMillis) {}
+}
@@ -0,0 +1,154 @@
+package com.innedu.slide.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.dto.TemplateResponse;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.render.DeckRenderer;
+import com.innedu.slide.render.OfflineDeckRenderer;
+import com.innedu.slide.repository.TemplateRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk export of the whole template catalog. Templates are streamed from the database with a
+ * bounded fetch size and detached once written, so heap use does not grow with the catalog.
+ */
+@Service
+public class TemplateExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateExportService.class);
+
+    private static final int FLUSH_EVERY = 50;
+
+    private final TemplateRepository templateRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final OfflineDeckRenderer offlineDeckRenderer;
+
+    public TemplateExportService(TemplateRepository templateRepository,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 OfflineDeckRenderer offlineDeckRenderer) {
+        this.templateRepository = templateRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.offlineDeckRenderer = offlineDeckRenderer;
+    }
+
+    /**
+     * Write every template as one JSON object per line (NDJSON)
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            try (Stream<Template> templates = templateRepository.streamAll()) {
+                Iterator<Template> it = templates.iterator();
+                while (it.hasNext()) {
+                    Template template = it.next();
+                    generator.writeObject(TemplateResponse.from(template));
+                    entityManager.detach(template);
+                    if (++count % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        logger.info("Exported {} templates as NDJSON", count);
+        return count;
+    }
+
+    /**
+     * Write every template's HTML file into a zip archive
+     */
+    @Transactional(readOnly = true)
+    public long exportZip(OutputStream out) throws IOException {
+        long count = 0;
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Set<String> entryNames = new HashSet<>();
+        try (Stream<Template> templates = templateRepository.streamAll()) {
+            Iterator<Template> it = templates.iterator();
+            while (it.hasNext()) {
+                Template template = it.next();
+                zip.putNextEntry(new ZipEntry(entryName(template, entryNames)));
+                zip.write(template.getContent().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+                entityManager.detach(template);
+                count++;
+            }
+        }
+        // finish() rather than close(): the underlying response stream is owned by the container
+        zip.finish();
+        zip.flush();
+        logger.info("Exported {} templates as zip", count);
+        return count;
+    }
+
+    /**
+     * Write every active template as a self-contained offline page into a zip archive, one HTML
+     * file per deck in its own theme. reveal.js assets are processed once for the whole archive.
+     */
+    @Transactional(readOnly = true)
+    public long exportOfflineZip(OutputStream out) throws IOException {
+        long count = 0;
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Set<String> entryNames = new HashSet<>();
+        try (Stream<Template> templates = templateRepository.streamAll()) {
+            Iterator<Template> it = templates.iterator();
+            while (it.hasNext()) {
+                Template template = it.next();
+                if (Boolean.TRUE.equals(template.getIsActive())) {
+                    zip.putNextEntry(new ZipEntry(entryName(template, entryNames)));
+                    zip.write(offlineDeckRenderer.render(template, DeckRenderer.resolveTheme(null, template)));
+                    zip.closeEntry();
+                    count++;
+                }
+                entityManager.detach(template);
+            }
+        }
+        zip.finish();
+        zip.flush();
+        logger.info("Exported {} templates as offline pages", count);
+        return count;
+    }
+
+    /**
+     * The template's file path, or, when an earlier entry already took it, the path with the
+     * template id appended. File paths are not unique: names that differ only in characters the
+     * file name mapping drops share one, and a duplicate entry would abort the archive midway.
+     */
+    private static String entryName(Template template, Set<String> taken) {
+        String name = template.getFilePath();
+        if (taken.add(name)) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        name = base + "-" + template.getId() + extension;
+        for (int n = 2; !taken.add(name); n++) {
+            name = base + "-" + template.getId() + "-" + n + extension;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,265 @@
+package com.innedu.slide.service;
+
+import com.innedu.slide.cluster.ClusterLock;
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.entity.TemplateFileTask;
+import com.innedu.slide.event.TemplateChangedEvent;
+import com.innedu.slide.metrics.TemplateMetrics;
+import com.innedu.slide.repository.TemplateFileTaskRepository;
+import com.innedu.slide.repository.TemplateRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind of template files through a transactional outbox.
+ *
+ * <p>Template writes only insert a {@link TemplateFileTask} row in their own transaction; after
+ * commit a single background worker drains the outbox. Tasks for the same file are coalesced so
+ * repeated edits produce one write of the latest content, read from the database at drain time.
+ * Files are written to a temp file, forced to disk and atomically renamed into place. Tasks still
+ * pending at shutdown or after a crash are replayed on the next start. A file is only deleted
+ * once no active template is backed by it any more: names such as "A-B" and "a b" share one.
+ *
+ * <p>In clustered mode every instance drains the shared outbox into the shared directory, one at
+ * a time under {@link ClusterLock#TEMPLATE_FILES}. Tasks are drained in the insert order the
+ * database assigns, not by id, so a delete on one instance still wins over an earlier write on
+ * another; a write whose template is gone deletes the file as well.
+ */
+@Component
+public class TemplateFileWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateFileWriter.class);
+
+    private static final long RETRY_DELAY_SECONDS = 5;
+    // Another instance is draining; it may have read the outbox before our tasks were committed
+    private static final long BUSY_DELAY_SECONDS = 1;
+
+    private final TemplateFileTaskRepository taskRepository;
+    private final TemplateRepository templateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TemplateMetrics metrics;
+    private final ClusterLock clusterLock;
+    private final Path templatesDir;
+
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    // Content hash of the last write per file, so the directory watcher can tell our writes apart
+    private final Map<String, String> writtenHashes = new ConcurrentHashMap<>();
+
+    public TemplateFileWriter(TemplateFileTaskRepository taskRepository,
+                              TemplateRepository templateRepository,
+                              PlatformTransactionManager transactionManager,
+                              BackgroundThreads backgroundThreads,
+                              TemplateMetrics metrics,
+                              ClusterLock clusterLock,
+                              @Value("${app.templates.path:../reveal.js/templates}") String templatesPath) {
+        this.taskRepository = taskRepository;
+        this.templateRepository = templateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.clusterLock = clusterLock;
+        this.templatesDir = Paths.get(templatesPath);
+        this.executor = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("template-file-writer"));
+    }
+
+    /**
+     * Queue a write of the template's file. Must be called inside the transaction that changes
+     * the template.
+     */
+    public void enqueueWrite(Template template) {
+        taskRepository.save(new TemplateFileTask(template.getId(), template.getFilePath(), TemplateFileTask.Operation.WRITE));
+    }
+
+    /**
+     * Queue a delete of the template's file. Must be called inside the transaction that deletes
+     * the template.
+     */
+    public void enqueueDelete(Template template) {
+        taskRepository.save(new TemplateFileTask(template.getId(), template.getFilePath(), TemplateFileTask.Operation.DELETE));
+    }
+
+    /**
+     * File paths with a write or delete still queued
+     */
+    public Set<String> pendingFilePaths() {
+        return taskRepository.findPendingFilePaths();
+    }
+
+    /**
+     * Whether the content is what this writer last wrote to the file, i.e. a file event for it is
+     * an echo of our own write rather than an external edit
+     */
+    public boolean isOwnWrite(String filePath, String content) {
+        String hash = writtenHashes.get(filePath);
+        return hash != null && hash.equals(Template.hashContent(content));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        signal();
+    }
+
+    /**
+     * Replay tasks left over from a previous run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayPending() {
+        signal();
+    }
+
+    /**
+     * Block until the outbox is empty or the timeout passes; returns whether it was drained
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (taskRepository.count() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            signal();
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Template file writer did not finish in time; pending tasks will be replayed on restart");
+            executor.shutdownNow();
+        }
+    }
+
+    private void signal() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            schedule(0);
+        }
+    }
+
+    private void schedule(long delaySeconds) {
+        try {
+            executor.schedule(this::drain, delaySeconds, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+            // Executor shut down; remaining tasks are replayed on the next start
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            boolean drained = clusterLock.tryRun(ClusterLock.TEMPLATE_FILES, () -> {
+                List<TemplateFileTask> batch;
+                while (!(batch = taskRepository.findTop500ByOrderBySeqAsc()).isEmpty()) {
+                    process(batch);
+                }
+                return null;
+            });
+            if (!drained && drainScheduled.compareAndSet(false, true)) {
+                schedule(BUSY_DELAY_SECONDS);
+            }
+        } catch (Exception e) {
+            logger.error("Template file write-behind failed, retrying in {}s", RETRY_DELAY_SECONDS, e);
+            if (drainScheduled.compareAndSet(false, true)) {
+                schedule(RETRY_DELAY_SECONDS);
+            }
+        }
+    }
+
+    private void process(List<TemplateFileTask> batch) throws IOException {
+        // Coalesce: only the latest task per file matters
+        Map<String, TemplateFileTask> latest = new LinkedHashMap<>();
+        for (TemplateFileTask task : batch) {
+            latest.remove(task.getFilePath());
+            latest.put(task.getFilePath(), task);
+        }
+
+        for (TemplateFileTask task : latest.values()) {
+            Optional<Template> template = task.getOperation() == TemplateFileTask.Operation.WRITE
+                    ? transactionTemplate.execute(status -> templateRepository.findWithContentById(task.getTemplateId()))
+                    : Optional.empty();
+            if (template.isEmpty()) {
+                // Another active template backed by the same file keeps it, with its own content
+                template = transactionTemplate.execute(status -> templateRepository
+                        .findFirstWithContentByFilePathAndIsActiveTrueOrderByUpdatedAtDesc(task.getFilePath()));
+            }
+            if (template.isPresent()) {
+                writeTemplateFile(task.getFilePath(), template.get().getContent());
+                writtenHashes.put(task.getFilePath(), template.get().getContentHash());
+            } else {
+                // A delete, or a write of a template deleted since: the file must not outlive it
+                deleteTemplateFile(task.getFilePath());
+                writtenHashes.remove(task.getFilePath());
+            }
+        }
+
+        List<Long> done = new ArrayList<>(batch.size());
+        for (TemplateFileTask task : batch) {
+            done.add(task.getId());
+        }
+        taskRepository.deleteAllByIdInBatch(done);
+        logger.debug("Flushed {} template file task(s) as {} file operation(s)", batch.size(), latest.size());
+    }
+
+    /**
+     * Write via temp file, fsync and atomic rename, so readers never see a partial file
+     */
+    private void writeTemplateFile(String filePath, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        metrics.timeFile(TemplateMetrics.FILE_WRITE, () -> {
+            Files.createDirectories(templatesDir);
+            Path target = templatesDir.resolve(filePath);
+            Path temp = templatesDir.resolve("." + filePath + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+        metrics.recordFileSize(TemplateMetrics.FILE_WRITE, bytes.length);
+    }
+
+    private void deleteTemplateFile(String filePath) throws IOException {
+        metrics.timeFile(TemplateMetrics.FILE_DELETE, () -> Files.deleteIfExists(templatesDir.resolve(filePath)));
+    }
+}
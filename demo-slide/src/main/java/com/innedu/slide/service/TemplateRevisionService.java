@@ -0,0 +1,154 @@
+package com.innedu.slide.service;
+
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.entity.TemplateRevision;
+import com.innedu.slide.event.TemplateChangedEvent;
+import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.repository.TemplateRepository;
+import com.innedu.slide.repository.TemplateRevisionData;
+import com.innedu.slide.repository.TemplateRevisionRepository;
+import com.innedu.slide.repository.TemplateRevisionSummary;
+import com.innedu.slide.util.GzipCodec;
+import com.innedu.slide.util.LineDelta;
+import com.innedu.slide.util.UnifiedDiff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Revision history of template content.
+ *
+ * <p>Every content write is recorded in the writing transaction, just before it commits, under the
+ * template version it produced. Most revisions are stored as a line delta from the previous one;
+ * a full snapshot is stored for the first revision, after {@code app.revisions.snapshot-interval}
+ * - 1 deltas, and whenever the delta would be at least half the size of a snapshot. Rebuilding a
+ * revision therefore decompresses one snapshot and applies fewer than snapshot-interval deltas.
+ */
+@Service
+@Transactional
+public class TemplateRevisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRevisionService.class);
+
+    private final TemplateRevisionRepository revisionRepository;
+    private final TemplateRepository templateRepository;
+    private final int snapshotInterval;
+
+    public TemplateRevisionService(TemplateRevisionRepository revisionRepository,
+                                   TemplateRepository templateRepository,
+                                   @Value("${app.revisions.snapshot-interval:16}") int snapshotInterval) {
+        this.revisionRepository = revisionRepository;
+        this.templateRepository = templateRepository;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        // Deleted templates lose their history through the foreign key cascade; another instance's
+        // change was recorded where it was made
+        if (event.getType() != TemplateChangedEvent.Type.DELETED && event.getContent() != null && !event.isRemote()) {
+            record(event.getId(), event.getVersion(), event.getContent(), event.getContentGzip(),
+                    event.getType() == TemplateChangedEvent.Type.CREATED);
+        }
+    }
+
+    /**
+     * Revisions of a template, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<TemplateRevisionSummary> getRevisions(Long templateId) {
+        if (!templateRepository.existsById(templateId)) {
+            throw new TemplateNotFoundException(templateId);
+        }
+        return revisionRepository.findByTemplateIdOrderByRevisionDesc(templateId);
+    }
+
+    /**
+     * The content of a revision; empty if the template has no such revision
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getRevisionContent(Long templateId, long revision) {
+        if (!templateRepository.existsById(templateId)) {
+            throw new TemplateNotFoundException(templateId);
+        }
+        return rebuild(templateId, revision);
+    }
+
+    /**
+     * Unified diff from one revision to another, with three lines of context; empty if either
+     * revision does not exist. The diff applies to the older revision with a PATCH request.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> diffRevisions(Long templateId, long from, long to) {
+        Optional<String> fromContent = getRevisionContent(templateId, from);
+        Optional<String> toContent = fromContent.isPresent() ? rebuild(templateId, to) : Optional.empty();
+        if (toContent.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(UnifiedDiff.format(fromContent.get(), toContent.get(),
+                "revision " + from, "revision " + to, 3));
+    }
+
+    private void record(Long templateId, Long revision, String content, byte[] contentGzip, boolean created) {
+        // A new template has no history to look up, which keeps bulk inserts free of per-row queries
+        Optional<TemplateRevisionSummary> latest = created ? Optional.empty()
+                : revisionRepository.findFirstByTemplateIdOrderByRevisionDesc(templateId);
+        String hash = Template.hashContent(content);
+        if (latest.isPresent() && (latest.get().getRevision() >= revision || latest.get().getContentHash().equals(hash))) {
+            return;
+        }
+
+        byte[] snapshot = contentGzip != null ? contentGzip : GzipCodec.compress(content);
+        TemplateRevision.Kind kind = TemplateRevision.Kind.SNAPSHOT;
+        byte[] data = snapshot;
+        int chainLength = 0;
+        if (latest.isPresent() && latest.get().getChainLength() + 1 < snapshotInterval) {
+            Optional<String> previous = rebuild(templateId, latest.get().getRevision());
+            if (previous.isPresent()) {
+                byte[] delta = LineDelta.create(previous.get(), content);
+                if (delta.length * 2 < snapshot.length) {
+                    kind = TemplateRevision.Kind.DELTA;
+                    data = delta;
+                    chainLength = latest.get().getChainLength() + 1;
+                }
+            }
+        }
+
+        revisionRepository.save(new TemplateRevision(templateId, revision, kind, chainLength, data,
+                content.getBytes(StandardCharsets.UTF_8).length, hash));
+        logger.debug("Recorded revision {} of template {} as {} ({} bytes)", revision, templateId, kind, data.length);
+    }
+
+    /**
+     * Decompress the nearest snapshot and apply the deltas after it, up to the revision
+     */
+    private Optional<String> rebuild(Long templateId, long revision) {
+        Optional<Long> snapshotRevision = revisionRepository.findSnapshotRevision(templateId, revision);
+        if (snapshotRevision.isEmpty()) {
+            return Optional.empty();
+        }
+        List<TemplateRevisionData> chain = revisionRepository.findChain(templateId, snapshotRevision.get(), revision);
+        TemplateRevisionData target = chain.get(chain.size() - 1);
+        if (target.revision() != revision) {
+            return Optional.empty();
+        }
+
+        String content = GzipCodec.decompress(chain.get(0).data());
+        for (TemplateRevisionData step : chain.subList(1, chain.size())) {
+            content = LineDelta.apply(content, step.data());
+        }
+        if (!Template.hashContent(content).equals(target.contentHash())) {
+            throw new IllegalStateException("Revision " + revision + " of template " + templateId
+                    + " does not match its hash");
+        }
+        return Optional.of(content);
+    }
+}
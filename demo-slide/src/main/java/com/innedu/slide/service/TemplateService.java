@@ -1,119 +1,289 @@
 package com.innedu.slide.service;
 
+import com.innedu.slide.cache.TemplateCache;
+import com.innedu.slide.cluster.ClusterLock;
+import com.innedu.slide.dto.TemplateBatchRequest;
+import com.innedu.slide.dto.TemplateBatchResponse;
 import com.innedu.slide.dto.TemplateCreateRequest;
+import com.innedu.slide.dto.TemplateImportReport;
+import com.innedu.slide.dto.TemplatePatchRequest;
+import com.innedu.slide.dto.TemplateStructureResponse;
 import com.innedu.slide.dto.TemplateUpdateRequest;
+import com.innedu.slide.entity.SlideRange;
 import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
 import com.innedu.slide.exception.TemplateAlreadyExistsException;
 import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.exception.TemplateVersionConflictException;
+import com.innedu.slide.metrics.TemplateMetrics;
+import com.innedu.slide.parser.DeckParser;
+import com.innedu.slide.parser.DeckStructure;
+import com.innedu.slide.repository.CatalogVersion;
 import com.innedu.slide.repository.TemplateRepository;
+import com.innedu.slide.repository.TemplateSummary;
+import com.innedu.slide.repository.TemplateSyncState;
+import com.innedu.slide.repository.TemplateValidators;
+import com.innedu.slide.search.TemplateSearchIndex;
+import com.innedu.slide.util.GzipCodec;
+import com.innedu.slide.util.UnifiedDiff;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "slide.template.service", description = "TemplateService calls")
 public class TemplateService {
     
     private static final Logger logger = LoggerFactory.getLogger(TemplateService.class);
+
+    static final int IMPORT_BATCH_SIZE = 50;
+
+    // Files read at once during import; the task executor is unbounded when it runs virtual threads
+    static final int IMPORT_READ_CONCURRENCY = 16;
     
     private final TemplateRepository templateRepository;
+    private final TemplateCache templateCache;
+    private final TemplateSearchIndex searchIndex;
+    private final TemplateFileWriter fileWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncTaskExecutor importExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TemplateMetrics metrics;
+    private final ClusterLock clusterLock;
     private final String templatesPath;
     
-    public TemplateService(TemplateRepository templateRepository, 
+    public TemplateService(TemplateRepository templateRepository,
+                          TemplateCache templateCache,
+                          TemplateSearchIndex searchIndex,
+                          TemplateFileWriter fileWriter,
+                          ApplicationEventPublisher eventPublisher,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor importExecutor,
+                          PlatformTransactionManager transactionManager,
+                          EntityManager entityManager,
+                          Validator validator,
+                          TemplateMetrics metrics,
+                          ClusterLock clusterLock,
                           @Value("${app.templates.path:../reveal.js/templates}") String templatesPath) {
         this.templateRepository = templateRepository;
+        this.templateCache = templateCache;
+        this.searchIndex = searchIndex;
+        this.fileWriter = fileWriter;
+        this.eventPublisher = eventPublisher;
+        this.importExecutor = importExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.metrics = metrics;
+        this.clusterLock = clusterLock;
         this.templatesPath = templatesPath;
     }
     
     /**
-     * Get all templates
+     * Get all templates (without content)
      */
     @Transactional(readOnly = true)
-    public List<Template> getAllTemplates() {
-        return templateRepository.findAllByOrderByCreatedAtDesc();
+    public List<TemplateSummary> getAllTemplates() {
+        return templateRepository.findSummariesByOrderByCreatedAtDesc();
     }
 
     /**
-     * Get all templates paged
+     * Get one slice of templates (without content), continuing from the cursor
      */
-
     @Transactional(readOnly = true)
-    public Page<Template> getAllTemplatesPaged(Pageable pageable) {
-        return templateRepository.findAllByOrderByCreatedAtDesc(pageable);
+    public Window<TemplateSummary> getTemplatesSlice(TemplateCursor cursor, int size) {
+        return templateRepository.findSummariesAfter(cursor.key(), cursor.direction(), cursor.scrollPosition(), size);
     }
     
     /**
-     * Get all active templates
+     * Get all active templates (without content)
      */
     @Transactional(readOnly = true)
-    public List<Template> getActiveTemplates() {
-        return templateRepository.findByIsActiveTrue();
+    public List<TemplateSummary> getActiveTemplates() {
+        return templateRepository.findSummariesByIsActiveTrue();
     }
     
     /**
-     * Get template by ID
+     * Get template by ID. Served from the template cache; the returned instance is shared
+     * and must not be modified.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Template getTemplateById(Long id) {
-        return templateRepository.findById(id)
+        return templateCache.getById(id, () -> templateRepository.findWithContentById(id))
                 .orElseThrow(() -> new TemplateNotFoundException(id));
     }
     
     /**
-     * Get template by name
+     * Get template by name. Served from the template cache; the returned instance is shared
+     * and must not be modified.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Template getTemplateByName(String name) {
-        return templateRepository.findByNameIgnoreCase(name)
+        return templateCache.getByName(name, () -> templateRepository.findWithContentByNameNormalized(Template.normalizeName(name)))
+                .orElseThrow(() -> new TemplateNotFoundException("name", name));
+    }
+
+    /**
+     * Get the HTTP cache validators of a template by ID, without loading its content
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TemplateValidators getTemplateValidators(Long id) {
+        return templateCache.peekById(id)
+                .map(TemplateValidators::of)
+                .or(() -> templateRepository.findValidatorsById(id))
+                .orElseThrow(() -> new TemplateNotFoundException(id));
+    }
+
+    /**
+     * Get the HTTP cache validators of a template by name, without loading its content
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TemplateValidators getTemplateValidatorsByName(String name) {
+        return templateCache.peekByName(name)
+                .map(TemplateValidators::of)
+                .or(() -> templateRepository.findValidatorsByNameNormalized(Template.normalizeName(name)))
                 .orElseThrow(() -> new TemplateNotFoundException("name", name));
     }
+
+    /**
+     * Get one top-level slide of a template as raw HTML, read from the compressed content by its
+     * byte range. Empty if the template has no such slide.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<byte[]> getSlide(Long id, int index) {
+        // The range must match the cached content's version; a mismatch means the cached copy is
+        // stale, so it is dropped and reloaded once
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Template template = getTemplateById(id);
+            Integer slideCount = template.getSlideCount();
+            if (index < 0 || slideCount == null || index >= slideCount) {
+                return Optional.empty();
+            }
+            Optional<SlideRange> range = templateRepository.findSlide(id, template.getVersion(), index);
+            if (range.isPresent()) {
+                return Optional.of(readRange(template.getContentGzip(), range.get()));
+            }
+            templateCache.invalidate(id);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get a template with its parsed structure (slide ranges and assets)
+     */
+    @Transactional(readOnly = true)
+    public TemplateStructureResponse getTemplateStructure(Long id) {
+        Template template = templateRepository.findWithStructureById(id)
+                .orElseThrow(() -> new TemplateNotFoundException(id));
+        return TemplateStructureResponse.from(template);
+    }
+
+    /**
+     * Parse the structure of rows stored before it was recorded
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfillDeckStructure() {
+        List<Long> ids = transactionTemplate.execute(status -> templateRepository.findIdsWithoutStructure());
+        for (Long id : ids) {
+            transactionTemplate.executeWithoutResult(status -> templateRepository.findWithContentById(id).ifPresent(template -> {
+                template.refreshStructure();
+                templateRepository.saveAndFlush(template);
+                eventPublisher.publishEvent(TemplateChangedEvent.updated(template, false));
+            }));
+        }
+        if (!ids.isEmpty()) {
+            logger.info("Parsed deck structure of {} existing template(s)", ids.size());
+        }
+        return ids.size();
+    }
+
+    private static byte[] readRange(byte[] contentGzip, SlideRange range) {
+        try (InputStream in = GzipCodec.open(contentGzip)) {
+            in.skipNBytes(range.byteOffset());
+            return in.readNBytes(range.byteLength());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the aggregate version of the catalog, the validator of list responses
+     */
+    @Transactional(readOnly = true)
+    public CatalogVersion getCatalogVersion() {
+        return templateRepository.findCatalogVersion();
+    }
+
+    /**
+     * Cache statistics for sizing the template cache
+     */
+    public TemplateCache.Stats getCacheStats() {
+        return templateCache.stats();
+    }
     
     /**
      * Create a new template
      */
     public Template createTemplate(TemplateCreateRequest request) {
         // Check if template with the same name already exists
-        if (templateRepository.existsByNameIgnoreCase(request.getName())) {
+        if (templateRepository.existsByNameNormalized(Template.normalizeName(request.getName()))) {
             throw TemplateAlreadyExistsException.forTemplateName(request.getName());
         }
+        // Distinct names can map to one file name ("A-B", "a b")
+        if (templateRepository.existsByFilePath(fileNameFor(request.getName()))) {
+            throw TemplateAlreadyExistsException.forFilePath(request.getName(), fileNameFor(request.getName()));
+        }
         
-        // Generate file path
-        String fileName = request.getName().toLowerCase().replaceAll("[^a-z0-9]", "-") + ".html";
-        String filePath = fileName;
+        Template template = newTemplate(request);
         
-        // Create template entity
-        Template template = new Template();
-        template.setName(request.getName());
-        template.setDisplayName(request.getDisplayName());
-        template.setDescription(request.getDescription());
-        template.setFilePath(filePath);
-        template.setContent(request.getContent());
-        template.setTheme(request.getTheme() != null ? request.getTheme() : "black");
-        template.setIsActive(true);
+        // Save to database (flushed so the version and timestamps are assigned)
+        Template savedTemplate = templateRepository.saveAndFlush(template);
         
-        // Save to database
-        Template savedTemplate = templateRepository.save(template);
-        
-        // Save to file system
-        try {
-            saveTemplateToFile(savedTemplate);
-            logger.info("Template created successfully: {} (ID: {})", savedTemplate.getName(), savedTemplate.getId());
-        } catch (IOException e) {
-            // If file creation fails, we should rollback the database transaction
-            logger.error("Failed to create template file for: " + savedTemplate.getName(), e);
-            throw new RuntimeException("Failed to create template file: " + e.getMessage(), e);
-        }
+        // Queue the file write; it runs after commit
+        fileWriter.enqueueWrite(savedTemplate);
+        logger.info("Template created successfully: {} (ID: {})", savedTemplate.getName(), savedTemplate.getId());
+        eventPublisher.publishEvent(TemplateChangedEvent.created(savedTemplate));
         
         return savedTemplate;
     }
@@ -122,169 +292,632 @@ public class TemplateService {
      * Update an existing template
      */
     public Template updateTemplate(Long id, TemplateUpdateRequest request) {
-        Template template = getTemplateById(id);
+        Template template = findTemplateForUpdate(id);
+        TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+        applyUpdate(template, request);
         
-        // Update template properties
-        template.setDisplayName(request.getDisplayName());
-        template.setDescription(request.getDescription());
-        template.setContent(request.getContent());
+        // Save to database (flushed so the version and timestamps are assigned)
+        Template updatedTemplate = templateRepository.saveAndFlush(template);
         
+        // Queue the file write; it runs after commit
+        fileWriter.enqueueWrite(updatedTemplate);
+        logger.info("Template updated successfully: {} (ID: {})", updatedTemplate.getName(), updatedTemplate.getId());
+        eventPublisher.publishEvent(TemplateChangedEvent.updated(updatedTemplate, before));
+        
+        return updatedTemplate;
+    }
+    
+    /**
+     * Partially update a template made against {@code request.baseVersion}: replace whole
+     * top-level slides, or apply a unified diff to the content, plus any metadata given.
+     * Throws TemplateVersionConflictException if the template has moved on.
+     */
+    public Template patchTemplate(Long id, TemplatePatchRequest request) {
+        Template template = templateRepository.findWithStructureById(id)
+                .orElseThrow(() -> new TemplateNotFoundException(id));
+        if (!template.getVersion().equals(request.getBaseVersion())) {
+            throw new TemplateVersionConflictException(id, request.getBaseVersion(), template.getVersion());
+        }
+        TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+        boolean hasSlides = request.getSlides() != null && !request.getSlides().isEmpty();
+        if (hasSlides && request.getPatch() != null) {
+            throw new IllegalArgumentException("Give either slide replacements or a patch, not both");
+        }
+
+        String content = template.getContent();
+        String patched = content;
+        if (hasSlides) {
+            patched = replaceSlides(template, request.getSlides());
+        } else if (request.getPatch() != null) {
+            patched = UnifiedDiff.apply(content, request.getPatch());
+        }
+        boolean contentChanged = !patched.equals(content);
+        if (contentChanged) {
+            template.setContent(patched);
+        }
+
+        if (request.getDisplayName() != null) {
+            template.setDisplayName(request.getDisplayName());
+        }
+        if (request.getDescription() != null) {
+            template.setDescription(request.getDescription());
+        }
         if (request.getTheme() != null) {
             template.setTheme(request.getTheme());
         }
-        
         if (request.getIsActive() != null) {
             template.setIsActive(request.getIsActive());
         }
-        
-        // Save to database
-        Template updatedTemplate = templateRepository.save(template);
-        
-        // Update file system
-        try {
-            saveTemplateToFile(updatedTemplate);
-            logger.info("Template updated successfully: {} (ID: {})", updatedTemplate.getName(), updatedTemplate.getId());
-        } catch (IOException e) {
-            logger.error("Failed to update template file for: " + updatedTemplate.getName(), e);
-            throw new RuntimeException("Failed to update template file: " + e.getMessage(), e);
+
+        // Save to database (flushed so the version and timestamps are assigned)
+        Template patchedTemplate = templateRepository.saveAndFlush(template);
+
+        if (contentChanged) {
+            // Queue the file write; it runs after commit
+            fileWriter.enqueueWrite(patchedTemplate);
         }
-        
-        return updatedTemplate;
+        logger.info("Template patched successfully: {} (ID: {}, version {} -> {})", patchedTemplate.getName(),
+                patchedTemplate.getId(), request.getBaseVersion(), patchedTemplate.getVersion());
+        eventPublisher.publishEvent(TemplateChangedEvent.updated(patchedTemplate, before));
+
+        return patchedTemplate;
+    }
+
+    /**
+     * Splice replacement slides into the UTF-8 content at their recorded byte ranges
+     */
+    private static String replaceSlides(Template template, List<TemplatePatchRequest.SlideReplacement> replacements) {
+        List<SlideRange> ranges = template.getSlides();
+        Map<Integer, String> byIndex = new TreeMap<>();
+        for (TemplatePatchRequest.SlideReplacement replacement : replacements) {
+            int index = replacement.getIndex();
+            if (index >= ranges.size()) {
+                throw new IllegalArgumentException("Template has no slide " + index);
+            }
+            if (byIndex.put(index, replacement.getHtml()) != null) {
+                throw new IllegalArgumentException("Slide " + index + " is replaced more than once");
+            }
+        }
+
+        byte[] content = template.getContent().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+        int position = 0;
+        for (Map.Entry<Integer, String> entry : byIndex.entrySet()) {
+            SlideRange range = ranges.get(entry.getKey());
+            int start = (int) range.byteOffset();
+            out.write(content, position, start - position);
+            out.writeBytes(entry.getValue().getBytes(StandardCharsets.UTF_8));
+            position = start + range.byteLength();
+        }
+        out.write(content, position, content.length - position);
+        return out.toString(StandardCharsets.UTF_8);
     }
     
     /**
      * Delete a template
      */
     public void deleteTemplate(Long id) {
-        Template template = getTemplateById(id);
+        Template template = findTemplateForUpdate(id);
         
-        // Delete from file system first
-        try {
-            deleteTemplateFile(template);
-        } catch (IOException e) {
-            logger.warn("Failed to delete template file for: " + template.getName(), e);
-            // Continue with database deletion even if file deletion fails
-        }
+        // Queue the file delete; it runs after commit
+        fileWriter.enqueueDelete(template);
         
         // Delete from database
         templateRepository.delete(template);
         logger.info("Template deleted successfully: {} (ID: {})", template.getName(), template.getId());
+        eventPublisher.publishEvent(TemplateChangedEvent.deleted(template));
     }
     
     /**
-     * Search templates
+     * Apply a batch of creates, updates and deletes, reporting the outcome of each item.
+     *
+     * <p>All items are validated first and name and file name conflicts are checked with one query
+     * each. The valid items are then written in a single transaction, so inserts, updates, deletes
+     * and their file tasks go out as JDBC batches and the file writer drains them together. If that transaction
+     * fails, each item is retried in its own transaction so that only the offending items fail.
      */
-    @Transactional(readOnly = true)
-    public List<Template> searchTemplates(String searchText) {
-        if (searchText == null || searchText.trim().isEmpty()) {
-            return getAllTemplates();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TemplateBatchResponse applyBatch(List<TemplateBatchRequest.Item> items) {
+        TemplateBatchResponse.ItemResult[] results = new TemplateBatchResponse.ItemResult[items.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Set<String> filePaths = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            TemplateBatchRequest.Item item = items.get(i);
+            String invalid = validateBatchItem(item);
+            if (invalid != null) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), item.getId(), "VALIDATION_ERROR", invalid);
+            } else if (item.getOp() == TemplateBatchRequest.Item.Operation.CREATE
+                    && !names.add(Template.normalizeName(item.getName()))) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), null, "TEMPLATE_ALREADY_EXISTS",
+                        "Template name '" + item.getName() + "' appears more than once in the batch");
+            } else if (item.getOp() == TemplateBatchRequest.Item.Operation.CREATE
+                    && !filePaths.add(fileNameFor(item.getName()))) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), null, "TEMPLATE_ALREADY_EXISTS",
+                        "Template name '" + item.getName() + "' maps to the same file as another name in the batch");
+            } else if (item.getOp() != TemplateBatchRequest.Item.Operation.CREATE && !ids.add(item.getId())) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), item.getId(), "DUPLICATE_ITEM",
+                        "Template " + item.getId() + " appears more than once in the batch");
+            } else {
+                pending.add(i);
+            }
+        }
+
+        Set<String> taken = names.isEmpty() ? Set.of()
+                : transactionTemplate.execute(status -> templateRepository.findTakenNamesNormalized(names));
+        Set<String> takenPaths = filePaths.isEmpty() ? Set.of()
+                : transactionTemplate.execute(status -> templateRepository.findTakenFilePaths(filePaths));
+        pending.removeIf(i -> {
+            TemplateBatchRequest.Item item = items.get(i);
+            if (item.getOp() != TemplateBatchRequest.Item.Operation.CREATE) {
+                return false;
+            }
+            if (taken.contains(Template.normalizeName(item.getName()))) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), null, "TEMPLATE_ALREADY_EXISTS",
+                        TemplateAlreadyExistsException.forTemplateName(item.getName()).getMessage());
+                return true;
+            }
+            if (takenPaths.contains(fileNameFor(item.getName()))) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), null, "TEMPLATE_ALREADY_EXISTS",
+                        TemplateAlreadyExistsException.forFilePath(item.getName(), fileNameFor(item.getName())).getMessage());
+                return true;
+            }
+            return false;
+        });
+
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBatch(items, pending, results));
+            } catch (RuntimeException e) {
+                logger.warn("Template batch of {} item(s) failed, retrying item by item: {}", pending.size(), e.getMessage());
+                for (int i : pending) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> writeBatch(items, List.of(i), results));
+                    } catch (RuntimeException itemFailure) {
+                        TemplateBatchRequest.Item item = items.get(i);
+                        results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), item.getId(), "WRITE_FAILED",
+                                itemFailure.getMessage());
+                    }
+                }
+            }
         }
-        return templateRepository.findByDisplayNameContainingOrDescriptionContainingIgnoreCase(searchText.trim());
+
+        TemplateBatchResponse response = new TemplateBatchResponse(List.of(results));
+        logger.info("Template batch applied: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
     }
-    
+
     /**
-     * Initialize templates from file system
+     * The item's validation errors as one message, or null if it is valid
      */
-    @Transactional
-    public void initializeTemplatesFromFileSystem() {
-        try {
-            Path templatesDir = Paths.get(templatesPath);
-            if (!Files.exists(templatesDir)) {
-                logger.warn("Templates directory does not exist: {}", templatesPath);
-                return;
+    private String validateBatchItem(TemplateBatchRequest.Item item) {
+        if (item == null || item.getOp() == null) {
+            return "Operation is required";
+        }
+        if (item.getOp() != TemplateBatchRequest.Item.Operation.CREATE && item.getId() == null) {
+            return "Template id is required";
+        }
+        Set<? extends ConstraintViolation<?>> violations = switch (item.getOp()) {
+            case CREATE -> validator.validate(item.toCreateRequest());
+            case UPDATE -> validator.validate(item.toUpdateRequest());
+            case DELETE -> Set.of();
+        };
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Write the given items in the current transaction, recording their results
+     */
+    private void writeBatch(List<TemplateBatchRequest.Item> items, List<Integer> indexes,
+                            TemplateBatchResponse.ItemResult[] results) {
+        List<Long> ids = indexes.stream()
+                .map(items::get)
+                .filter(item -> item.getOp() != TemplateBatchRequest.Item.Operation.CREATE)
+                .map(TemplateBatchRequest.Item::getId)
+                .toList();
+        Map<Long, Template> existing = new HashMap<>();
+        templateRepository.findAllById(ids).forEach(template -> existing.put(template.getId(), template));
+
+        Map<Integer, Template> written = new LinkedHashMap<>();
+        Map<Integer, TemplateChangedEvent.Snapshot> updatedFrom = new HashMap<>();
+        List<Template> created = new ArrayList<>();
+        List<Template> deleted = new ArrayList<>();
+        for (int i : indexes) {
+            TemplateBatchRequest.Item item = items.get(i);
+            if (item.getOp() == TemplateBatchRequest.Item.Operation.CREATE) {
+                Template template = newTemplate(item.toCreateRequest());
+                created.add(template);
+                written.put(i, template);
+                continue;
+            }
+            Template template = existing.get(item.getId());
+            if (template == null) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), item.getId(), "TEMPLATE_NOT_FOUND",
+                        new TemplateNotFoundException(item.getId()).getMessage());
+            } else if (item.getBaseVersion() != null && !item.getBaseVersion().equals(template.getVersion())) {
+                results[i] = TemplateBatchResponse.ItemResult.failed(i, item.getOp(), item.getId(), "VERSION_CONFLICT",
+                        new TemplateVersionConflictException(item.getId(), item.getBaseVersion(), template.getVersion()).getMessage());
+            } else if (item.getOp() == TemplateBatchRequest.Item.Operation.UPDATE) {
+                updatedFrom.put(i, TemplateChangedEvent.Snapshot.of(template));
+                applyUpdate(template, item.toUpdateRequest());
+                written.put(i, template);
+            } else {
+                deleted.add(template);
+                written.put(i, template);
+            }
+        }
+
+        templateRepository.saveAll(created);
+        if (!deleted.isEmpty()) {
+            // One statement; slides, assets and revisions go with the rows by foreign key cascade
+            deleted.forEach(fileWriter::enqueueDelete);
+            templateRepository.deleteAllInBatch(deleted);
+        }
+        templateRepository.flush();
+
+        written.forEach((i, template) -> {
+            TemplateBatchRequest.Item.Operation op = items.get(i).getOp();
+            switch (op) {
+                case CREATE -> {
+                    fileWriter.enqueueWrite(template);
+                    eventPublisher.publishEvent(TemplateChangedEvent.created(template));
+                }
+                case UPDATE -> {
+                    fileWriter.enqueueWrite(template);
+                    eventPublisher.publishEvent(TemplateChangedEvent.updated(template, updatedFrom.get(i)));
+                }
+                case DELETE -> eventPublisher.publishEvent(TemplateChangedEvent.deleted(template));
             }
-            
-            Files.list(templatesDir)
-                    .filter(path -> path.toString().endsWith(".html"))
-                    .forEach(this::loadTemplateFromFile);
-                    
+            String status = switch (op) {
+                case CREATE -> "CREATED";
+                case UPDATE -> "UPDATED";
+                case DELETE -> "DELETED";
+            };
+            results[i] = TemplateBatchResponse.ItemResult.succeeded(i, op, status, template.getId(),
+                    op == TemplateBatchRequest.Item.Operation.DELETE ? null : template.getVersion());
+        });
+    }
+    
+    /**
+     * Search templates by display name, description and slide text, ranked and paged.
+     * Served from the in-memory search index, not the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TemplateSearchIndex.SearchResult searchTemplates(String searchText, int page, int size) {
+        return searchIndex.search(searchText, page, size);
+    }
+    
+    /**
+     * Initialize templates from file system.
+     *
+     * <p>Only differences with the database are applied, so a warm restart does almost no work.
+     * The stored state is fetched in one query; files not modified since their row was last
+     * written are skipped unread. New and possibly changed files are read in parallel on the
+     * application task executor; new rows are inserted in JDBC batches of {@value #IMPORT_BATCH_SIZE},
+     * each committing on its own, and a failing batch is retried row by row so one bad file does
+     * not abort the rest. Changed files update their row when the content hash differs, and
+     * rows whose file has disappeared are deactivated.
+     *
+     * <p>In clustered mode instances import one at a time, so one starting alongside another finds
+     * its rows already there.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TemplateImportReport initializeTemplatesFromFileSystem() {
+        return clusterLock.call(ClusterLock.TEMPLATE_SYNC, this::importTemplateFiles);
+    }
+
+    private TemplateImportReport importTemplateFiles() {
+        long start = System.nanoTime();
+        TemplateImportReport report = new TemplateImportReport();
+        Path templatesDir = Paths.get(templatesPath);
+        if (!Files.exists(templatesDir)) {
+            logger.warn("Templates directory does not exist: {}", templatesPath);
+            return report.finish(start);
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(templatesDir)) {
+            files = listing.filter(path -> path.toString().endsWith(".html")).sorted().toList();
         } catch (IOException e) {
             logger.error("Failed to initialize templates from file system", e);
+            report.addFailure(templatesPath, e.getMessage());
+            return report.finish(start);
+        }
+        report.setFilesScanned(files.size());
+
+        // One query for the stored state instead of one lookup per file. Rows are matched to files
+        // by file path: a name rebuilt from the file name need not be the stored one.
+        List<TemplateSyncState> states = transactionTemplate.execute(status -> templateRepository.findSyncStatesBy());
+        Map<String, TemplateSyncState> stored = new HashMap<>();
+        for (TemplateSyncState state : states) {
+            stored.merge(state.getFilePath(), state, (first, second) -> first.getId() < second.getId() ? first : second);
+        }
+        Set<String> newNames = new HashSet<>();
+        List<Path> newFiles = new ArrayList<>();
+        List<Path> changedFiles = new ArrayList<>();
+        for (Path file : files) {
+            TemplateSyncState state = stored.get(file.getFileName().toString());
+            if (state == null) {
+                // Two new files may still map to one name ("a-b.html", "a b.html"): the first wins
+                if (newNames.add(Template.normalizeName(templateNameFor(file)))) {
+                    newFiles.add(file);
+                } else {
+                    report.setSkipped(report.getSkipped() + 1);
+                }
+            } else if (Boolean.TRUE.equals(state.getIsActive()) && isUnchangedSince(file, state.getUpdatedAt())) {
+                report.setSkipped(report.getSkipped() + 1);
+            } else {
+                changedFiles.add(file);
+            }
         }
+
+        List<Path> toRead = new ArrayList<>(newFiles);
+        toRead.addAll(changedFiles);
+        List<CompletableFuture<TemplateFile>> reads = new ArrayList<>(toRead.size());
+        Semaphore readPermits = new Semaphore(IMPORT_READ_CONCURRENCY);
+        for (Path file : toRead) {
+            reads.add(CompletableFuture.supplyAsync(() -> {
+                readPermits.acquireUninterruptibly();
+                try {
+                    return readTemplateFile(file);
+                } finally {
+                    readPermits.release();
+                }
+            }, importExecutor));
+        }
+        List<TemplateFile> parsed = new ArrayList<>(newFiles.size());
+        for (int i = 0; i < reads.size(); i++) {
+            TemplateFile templateFile;
+            try {
+                templateFile = reads.get(i).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.error("Failed to load template from file: " + toRead.get(i), cause);
+                report.addFailure(toRead.get(i).getFileName().toString(), cause.getMessage());
+                continue;
+            }
+            if (i < newFiles.size()) {
+                parsed.add(templateFile);
+            } else {
+                reconcileChangedFile(templateFile, report);
+            }
+        }
+
+        for (int from = 0; from < parsed.size(); from += IMPORT_BATCH_SIZE) {
+            insertBatch(parsed.subList(from, Math.min(from + IMPORT_BATCH_SIZE, parsed.size())), report);
+        }
+
+        // Rows whose file is gone (and not about to be written by the file writer) are deactivated
+        Set<String> pendingWrites = fileWriter.pendingFilePaths();
+        for (TemplateSyncState state : states) {
+            if (Boolean.TRUE.equals(state.getIsActive())
+                    && !pendingWrites.contains(state.getFilePath())
+                    && !Files.exists(templatesDir.resolve(state.getFilePath()))) {
+                Boolean deactivated = transactionTemplate.execute(status -> deactivateTemplateFile(state.getFilePath()));
+                if (Boolean.TRUE.equals(deactivated)) {
+                    report.setDeactivated(report.getDeactivated() + 1);
+                }
+            }
+        }
+
+        report.finish(start);
+        logger.info("Scanned {} template file(s) in {} ms ({} files/s): {} imported, {} updated, {} deactivated, "
+                        + "{} unchanged, {} failed",
+                report.getFilesScanned(), report.getDurationMs(), String.format("%.1f", report.getFilesPerSecond()),
+                report.getImported(), report.getUpdated(), report.getDeactivated(), report.getSkipped(),
+                report.getFailed());
+        for (TemplateImportReport.FileFailure failure : report.getFailures()) {
+            logger.warn("Template import failed for {}: {}", failure.file(), failure.error());
+        }
+        return report;
     }
-    
+
+    private void reconcileChangedFile(TemplateFile templateFile, TemplateImportReport report) {
+        try {
+            Boolean changed = transactionTemplate.execute(status ->
+                    syncTemplateFile(templateFile.fileName(), templateFile.content()));
+            if (Boolean.TRUE.equals(changed)) {
+                report.setUpdated(report.getUpdated() + 1);
+            } else {
+                report.setSkipped(report.getSkipped() + 1);
+            }
+        } catch (RuntimeException e) {
+            report.addFailure(templateFile.fileName(), e.getMessage());
+        }
+    }
+
     /**
-     * Load template from file system
+     * Whether the file was last modified before the row was last written, i.e. it cannot carry
+     * changes the database has not seen
      */
-    private void loadTemplateFromFile(Path filePath) {
+    private static boolean isUnchangedSince(Path file, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return false;
+        }
         try {
-            String fileName = filePath.getFileName().toString();
-            String templateName = fileName.replace(".html", "").replaceAll("-", " ");
-            
-            // Skip if already exists in database
-            if (templateRepository.existsByNameIgnoreCase(templateName)) {
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            return modified.isBefore(updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void insertBatch(List<TemplateFile> batch, TemplateImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Template> templates = batch.stream().map(TemplateFile::toTemplate).toList();
+                templateRepository.saveAll(templates);
+                templateRepository.flush();
+                templates.forEach(template -> eventPublisher.publishEvent(TemplateChangedEvent.created(template)));
+                entityManager.clear();
+            });
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                report.addFailure(batch.get(0).fileName(), e.getMessage());
                 return;
             }
-            
-            String content = Files.readString(filePath);
-            
+            // Isolate the failing row(s); entities are rebuilt so no stale ids carry over
+            for (TemplateFile file : batch) {
+                insertBatch(List.of(file), report);
+            }
+        }
+    }
+
+    private static String templateNameFor(Path file) {
+        return templateNameFor(file.getFileName().toString());
+    }
+
+    private static String templateNameFor(String fileName) {
+        return fileName.replace(".html", "").replaceAll("-", " ");
+    }
+
+    /**
+     * Create or update the template backed by a changed file, reactivating it if needed.
+     * Returns false when the stored content is already identical.
+     *
+     * <p>The row is found by its file path: names do not survive the trip to a file name
+     * ("Lập trình" is stored as l-p-tr-nh.html), so a new row is only created for a file no
+     * template owns yet.
+     */
+    public boolean syncTemplateFile(String fileName, String content) {
+        Optional<Template> existing = templateRepository.findFirstByFilePathOrderByIdAsc(fileName);
+        if (existing.isEmpty()) {
+            String templateName = templateNameFor(fileName);
+            Template template = new TemplateFile(fileName, templateName, capitalizeWords(templateName), content,
+                    DeckParser.parse(content)).toTemplate();
+            templateRepository.saveAndFlush(template);
+            logger.info("Synced new template from file: {}", fileName);
+            eventPublisher.publishEvent(TemplateChangedEvent.created(template));
+            return true;
+        }
+
+        Template template = existing.get();
+        TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+        boolean contentChanged = !Template.hashContent(content).equals(template.getContentHash());
+        if (!contentChanged && Boolean.TRUE.equals(template.getIsActive())) {
+            return false;
+        }
+        if (contentChanged) {
+            DeckStructure structure = DeckParser.parse(content);
+            template.setContent(content, structure);
+            template.setTheme(themeOf(structure));
+        }
+        template.setIsActive(true);
+        templateRepository.saveAndFlush(template);
+        logger.info("Synced template from file: {}", fileName);
+        eventPublisher.publishEvent(TemplateChangedEvent.updated(template, before));
+        return true;
+    }
+
+    /**
+     * Deactivate the template(s) whose file was removed; returns false if there was nothing to do
+     */
+    public boolean deactivateTemplateFile(String fileName) {
+        List<Template> existing = templateRepository.findByFilePathAndIsActiveTrue(fileName);
+        for (Template template : existing) {
+            TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+            template.setIsActive(false);
+            templateRepository.saveAndFlush(template);
+            logger.info("Deactivated template, file removed: {}", fileName);
+            eventPublisher.publishEvent(TemplateChangedEvent.updated(template, before));
+        }
+        return !existing.isEmpty();
+    }
+
+    /**
+     * Read and parse a template file; runs on the import executor
+     */
+    private TemplateFile readTemplateFile(Path filePath) {
+        try {
+            String fileName = filePath.getFileName().toString();
+            String templateName = templateNameFor(filePath);
+            String content = metrics.readFile(filePath);
+            return new TemplateFile(fileName, templateName, capitalizeWords(templateName), content,
+                    DeckParser.parse(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record TemplateFile(String fileName, String name, String displayName, String content,
+                                DeckStructure structure) {
+
+        Template toTemplate() {
             Template template = new Template();
-            template.setName(templateName);
-            template.setDisplayName(capitalizeWords(templateName));
+            template.setName(name);
+            template.setDisplayName(displayName);
             template.setDescription("Loaded from existing file: " + fileName);
             template.setFilePath(fileName);
-            template.setContent(content);
-            template.setTheme(extractThemeFromContent(content));
+            template.setContent(content, structure);
+            template.setTheme(themeOf(structure));
             template.setIsActive(true);
-            
-            templateRepository.save(template);
-            logger.info("Loaded template from file: {}", fileName);
-            
-        } catch (IOException e) {
-            logger.error("Failed to load template from file: " + filePath, e);
+            return template;
         }
     }
     
     /**
-     * Save template to file system
+     * A new, unsaved template for a create request
      */
-    private void saveTemplateToFile(Template template) throws IOException {
-        Path templatesDir = Paths.get(templatesPath);
+    private static Template newTemplate(TemplateCreateRequest request) {
+        String filePath = fileNameFor(request.getName());
         
-        // Create directory if it doesn't exist
-        if (!Files.exists(templatesDir)) {
-            Files.createDirectories(templatesDir);
+        // Create template entity
+        Template template = new Template();
+        template.setName(request.getName());
+        template.setDisplayName(request.getDisplayName());
+        template.setDescription(request.getDescription());
+        template.setFilePath(filePath);
+        template.setContent(request.getContent());
+        template.setTheme(request.getTheme() != null ? request.getTheme() : "black");
+        template.setIsActive(true);
+        return template;
+    }
+    
+    /**
+     * The file a new template is written to
+     */
+    private static String fileNameFor(String name) {
+        return name.toLowerCase().replaceAll("[^a-z0-9]", "-") + ".html";
+    }
+    
+    private static void applyUpdate(Template template, TemplateUpdateRequest request) {
+        template.setDisplayName(request.getDisplayName());
+        template.setDescription(request.getDescription());
+        template.setContent(request.getContent());
+        
+        if (request.getTheme() != null) {
+            template.setTheme(request.getTheme());
         }
         
-        Path filePath = templatesDir.resolve(template.getFilePath());
-        Files.writeString(filePath, template.getContent(), 
-                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (request.getIsActive() != null) {
+            template.setIsActive(request.getIsActive());
+        }
     }
     
     /**
-     * Delete template file from file system
+     * Load a managed template for modification, bypassing the cache
      */
-    private void deleteTemplateFile(Template template) throws IOException {
-        Path filePath = Paths.get(templatesPath, template.getFilePath());
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
-        }
+    private Template findTemplateForUpdate(Long id) {
+        return templateRepository.findById(id)
+                .orElseThrow(() -> new TemplateNotFoundException(id));
     }
     
     /**
-     * Extract theme from template content
+     * Theme linked by the deck's stylesheet, or the default
      */
-    private String extractThemeFromContent(String content) {
-        // Look for theme CSS link in the content
-        if (content.contains("theme/white.css")) return "white";
-        if (content.contains("theme/black.css")) return "black";
-        if (content.contains("theme/league.css")) return "league";
-        if (content.contains("theme/beige.css")) return "beige";
-        if (content.contains("theme/sky.css")) return "sky";
-        if (content.contains("theme/night.css")) return "night";
-        if (content.contains("theme/serif.css")) return "serif";
-        if (content.contains("theme/simple.css")) return "simple";
-        if (content.contains("theme/solarized.css")) return "solarized";
-        if (content.contains("theme/blood.css")) return "blood";
-        if (content.contains("theme/moon.css")) return "moon";
-        
-        return "black"; // default
+    private static String themeOf(DeckStructure structure) {
+        return structure.theme() != null ? structure.theme() : "black";
     }
     
     /**
-     * Capitalize first letter of each word
+     * Capitalize first letter of each word. Package-private for the benchmarks in src/jmh.
      */
-    private String capitalizeWords(String text) {
+    static String capitalizeWords(String text) {
         if (text == null || text.isEmpty()) {
             return text;
         }
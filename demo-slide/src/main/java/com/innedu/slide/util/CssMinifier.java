@@ -0,0 +1,76 @@
+package com.innedu.slide.util;
+
+/**
+ * Conservative CSS minifier for inlining stylesheets: drops comments (except {@code /*!} license
+ * comments), collapses whitespace and removes it around {@code { } ; , >} and before a closing
+ * brace's semicolon. Strings are copied untouched. Whitespace elsewhere is kept as one space, since
+ * it can be significant (descendant selectors, {@code calc()}, media queries).
+ */
+public final class CssMinifier {
+
+    private CssMinifier() {}
+
+    public static String minify(String css) {
+        int length = css.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = css.charAt(i);
+            if (c == '/' && i + 1 < length && css.charAt(i + 1) == '*') {
+                int end = css.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                if (i + 2 < length && css.charAt(i + 2) == '!') {
+                    appendSeparated(out, pendingSpace, '/');
+                    out.append(css, i + 1, end);
+                    pendingSpace = false;
+                }
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+            } else if (c == '"' || c == '\'') {
+                int end = endOfString(css, i);
+                appendSeparated(out, pendingSpace, c);
+                out.append(css, i + 1, end);
+                pendingSpace = false;
+                i = end;
+            } else {
+                if (c == '}' && !out.isEmpty() && out.charAt(out.length() - 1) == ';') {
+                    out.setLength(out.length() - 1);
+                }
+                appendSeparated(out, pendingSpace, c);
+                pendingSpace = false;
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendSeparated(StringBuilder out, boolean pendingSpace, char c) {
+        if (pendingSpace && !out.isEmpty() && !isTight(out.charAt(out.length() - 1)) && !isTight(c)) {
+            out.append(' ');
+        }
+        out.append(c);
+    }
+
+    private static boolean isTight(char c) {
+        return c == '{' || c == '}' || c == ';' || c == ',' || c == '>';
+    }
+
+    /**
+     * Index just past the closing quote of the string starting at {@code start}
+     */
+    private static int endOfString(String css, int start) {
+        char quote = css.charAt(start);
+        for (int i = start + 1; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            }
+        }
+        return css.length();
+    }
+}
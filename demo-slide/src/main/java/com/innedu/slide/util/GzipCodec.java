@@ -0,0 +1,57 @@
+package com.innedu.slide.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip helpers for template content. Content is compressed once at write time with the best
+ * compression level, since it is read far more often than it is written; the stored bytes are a
+ * valid {@code Content-Encoding: gzip} body as-is.
+ */
+public final class GzipCodec {
+
+    private GzipCodec() {}
+
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static String decompress(byte[] gzipped) {
+        if (gzipped == null) {
+            return null;
+        }
+        try (InputStream in = open(gzipped)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt gzip content", e);
+        }
+    }
+
+    /**
+     * Stream the decompressed bytes, for callers that only need part of the content.
+     */
+    public static InputStream open(byte[] gzipped) throws IOException {
+        return new GZIPInputStream(new ByteArrayInputStream(gzipped), 8192);
+    }
+}
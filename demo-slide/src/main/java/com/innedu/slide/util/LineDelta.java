@@ -0,0 +1,116 @@
+package com.innedu.slide.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact forward delta between two versions of a text.
+ *
+ * <p>A delta is a list of line edits: copy the next N base lines, skip the next M, insert these
+ * lines. Only inserted lines are stored, so its size follows the size of the edit, not of the
+ * text. The encoding is raw deflate over varint-prefixed fields.
+ */
+public final class LineDelta {
+
+    private LineDelta() {}
+
+    public static byte[] create(String from, String to) {
+        List<String> oldLines = UnifiedDiff.splitLines(from);
+        List<String> newLines = UnifiedDiff.splitLines(to);
+        List<LineDiff.Edit> edits = LineDiff.diff(oldLines, newLines);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            writeVarint(out, edits.size());
+            int position = 0;
+            for (LineDiff.Edit edit : edits) {
+                writeVarint(out, edit.oldStart() - position);
+                writeVarint(out, edit.oldEnd() - edit.oldStart());
+                writeVarint(out, edit.newEnd() - edit.newStart());
+                for (String line : newLines.subList(edit.newStart(), edit.newEnd())) {
+                    byte[] utf8 = line.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(out, utf8.length);
+                    out.write(utf8);
+                }
+                position = edit.oldEnd();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Rebuild the newer text from the base text and a delta made by {@link #create}
+     */
+    public static String apply(String from, byte[] delta) {
+        List<String> oldLines = UnifiedDiff.splitLines(from);
+        StringBuilder out = new StringBuilder(from.length() + delta.length * 4);
+        Inflater inflater = new Inflater(true);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta), inflater))) {
+            int edits = readVarint(in);
+            int position = 0;
+            for (int e = 0; e < edits; e++) {
+                int copy = readVarint(in);
+                int skip = readVarint(in);
+                int inserts = readVarint(in);
+                if (position + copy + skip > oldLines.size()) {
+                    throw new IllegalStateException("Delta does not fit its base text");
+                }
+                for (int i = 0; i < copy; i++) {
+                    out.append(oldLines.get(position++));
+                }
+                position += skip;
+                for (int i = 0; i < inserts; i++) {
+                    out.append(new String(in.readNBytes(readVarint(in)), StandardCharsets.UTF_8));
+                }
+            }
+            while (position < oldLines.size()) {
+                out.append(oldLines.get(position++));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt delta", e);
+        } finally {
+            inflater.end();
+        }
+        return out.toString();
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
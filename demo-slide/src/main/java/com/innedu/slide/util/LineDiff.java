@@ -0,0 +1,132 @@
+package com.innedu.slide.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-based diff using Myers' O(ND) algorithm.
+ *
+ * <p>The common prefix and suffix are trimmed first, so the cost depends on the size of the edit
+ * rather than the size of the text. Past {@value #MAX_EDIT_DISTANCE} line edits the search stops
+ * and the whole differing middle is reported as one replacement; the result is still correct,
+ * just not minimal.
+ */
+public final class LineDiff {
+
+    static final int MAX_EDIT_DISTANCE = 1024;
+
+    /**
+     * Old lines {@code [oldStart, oldEnd)} are replaced by new lines {@code [newStart, newEnd)}
+     */
+    public record Edit(int oldStart, int oldEnd, int newStart, int newEnd) {}
+
+    private LineDiff() {}
+
+    /**
+     * The differing regions of two line lists, in order; empty if they are equal
+     */
+    public static List<Edit> diff(List<String> oldLines, List<String> newLines) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] a = intern(oldLines, ids);
+        int[] b = intern(newLines, ids);
+
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix] == b[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix] == b[b.length - 1 - suffix]) {
+            suffix++;
+        }
+        int n = a.length - prefix - suffix;
+        int m = b.length - prefix - suffix;
+
+        List<Edit> edits = new ArrayList<>();
+        if (n == 0 && m == 0) {
+            return edits;
+        }
+        int i = 0;
+        int j = 0;
+        for (int[] match : matches(a, b, prefix, n, m)) {
+            if (match[0] > i || match[1] > j) {
+                edits.add(new Edit(prefix + i, prefix + match[0], prefix + j, prefix + match[1]));
+            }
+            i = match[0] + 1;
+            j = match[1] + 1;
+        }
+        if (i < n || j < m) {
+            edits.add(new Edit(prefix + i, prefix + n, prefix + j, prefix + m));
+        }
+        return edits;
+    }
+
+    /**
+     * Matched line pairs of a shortest edit script of {@code a[offset, offset+n)} into
+     * {@code b[offset, offset+m)}, relative to offset; empty if the edit distance is too large
+     */
+    private static List<int[]> matches(int[] a, int[] b, int offset, int n, int m) {
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int center = max + 1;
+        int[] v = new int[2 * max + 3];
+        // v[-d..d] as it stood before each step d, for the backtrack
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, center - d, center + d + 1));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[center + k - 1] < v[center + k + 1])
+                        ? v[center + k + 1]
+                        : v[center + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[offset + x] == b[offset + y]) {
+                    x++;
+                    y++;
+                }
+                v[center + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, n, m);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private static List<int[]> backtrack(List<int[]> trace, int n, int m) {
+        List<int[]> matches = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d >= 0; d--) {
+            int previousX = 0;
+            int previousY = 0;
+            if (d > 0) {
+                int[] v = trace.get(d);
+                int k = x - y;
+                // v[k] is stored at v[k + d]
+                int previousK = k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d]) ? k + 1 : k - 1;
+                previousX = v[previousK + d];
+                previousY = previousX - previousK;
+            }
+            while (x > previousX && y > previousY) {
+                x--;
+                y--;
+                matches.add(new int[] {x, y});
+            }
+            x = previousX;
+            y = previousY;
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    private static int[] intern(List<String> lines, Map<String, Integer> ids) {
+        int[] interned = new int[lines.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = ids.computeIfAbsent(lines.get(i), line -> ids.size());
+        }
+        return interned;
+    }
+}
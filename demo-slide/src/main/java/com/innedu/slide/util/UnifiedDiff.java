@@ -0,0 +1,233 @@
+package com.innedu.slide.util;
+
+import com.innedu.slide.exception.PatchConflictException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Produces and applies unified diffs ({@code diff -u} / {@code git diff} format).
+ *
+ * <p>Hunks must apply exactly at the line numbers they state: patches are made against a known
+ * version, so there is no fuzzy matching. Lines are compared including their terminators;
+ * "\ No newline at end of file" markers are honoured.
+ */
+public final class UnifiedDiff {
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -(\\d+)(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@.*");
+
+    private UnifiedDiff() {}
+
+    /**
+     * Unified diff turning {@code from} into {@code to} with the given lines of context; empty if
+     * they are equal. The output applies with {@link #apply}.
+     */
+    public static String format(String from, String to, String fromLabel, String toLabel, int context) {
+        List<String> oldLines = splitLines(from);
+        List<String> newLines = splitLines(to);
+        List<LineDiff.Edit> edits = LineDiff.diff(oldLines, newLines);
+        if (edits.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("--- ").append(fromLabel).append('\n');
+        out.append("+++ ").append(toLabel).append('\n');
+        int first = 0;
+        while (first < edits.size()) {
+            // Merge edits whose context would overlap into one hunk
+            int last = first;
+            while (last + 1 < edits.size() && edits.get(last + 1).oldStart() - edits.get(last).oldEnd() <= 2 * context) {
+                last++;
+            }
+            LineDiff.Edit head = edits.get(first);
+            LineDiff.Edit tail = edits.get(last);
+            int oldStart = Math.max(0, head.oldStart() - context);
+            int oldEnd = Math.min(oldLines.size(), tail.oldEnd() + context);
+            int newStart = head.newStart() - (head.oldStart() - oldStart);
+            int newEnd = tail.newEnd() + (oldEnd - tail.oldEnd());
+            out.append("@@ -").append(range(oldStart, oldEnd - oldStart))
+                    .append(" +").append(range(newStart, newEnd - newStart)).append(" @@\n");
+
+            int position = oldStart;
+            for (int i = first; i <= last; i++) {
+                LineDiff.Edit edit = edits.get(i);
+                appendLines(out, ' ', oldLines, position, edit.oldStart());
+                appendLines(out, '-', oldLines, edit.oldStart(), edit.oldEnd());
+                appendLines(out, '+', newLines, edit.newStart(), edit.newEnd());
+                position = edit.oldEnd();
+            }
+            appendLines(out, ' ', oldLines, position, oldEnd);
+            first = last + 1;
+        }
+        return out.toString();
+    }
+
+    private static String range(int start, int count) {
+        // A hunk without lines names the line before it
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+
+    private static void appendLines(StringBuilder out, char op, List<String> lines, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String line = lines.get(i);
+            out.append(op).append(line);
+            if (!line.endsWith("\n")) {
+                out.append("\n\\ No newline at end of file\n");
+            }
+        }
+    }
+
+    /**
+     * Apply the diff. Throws IllegalArgumentException if it is malformed and
+     * PatchConflictException if its context or removed lines do not match the text.
+     */
+    public static String apply(String original, String diff) {
+        List<String> source = splitLines(original);
+        List<Hunk> hunks = parse(diff);
+        if (hunks.isEmpty()) {
+            throw new IllegalArgumentException("Patch contains no hunks");
+        }
+
+        StringBuilder out = new StringBuilder(original.length() + diff.length());
+        int position = 0;
+        for (Hunk hunk : hunks) {
+            int start = hunk.oldCount == 0 ? hunk.oldStart : hunk.oldStart - 1;
+            if (start < position || start > source.size()) {
+                throw new IllegalArgumentException("Hunk at line " + hunk.oldStart + " is out of order or out of range");
+            }
+            while (position < start) {
+                out.append(source.get(position++));
+            }
+            for (Line line : hunk.lines) {
+                if (line.op == '+') {
+                    out.append(line.text);
+                    continue;
+                }
+                if (position >= source.size() || !source.get(position).equals(line.text)) {
+                    throw new PatchConflictException("Hunk at line " + hunk.oldStart + " does not match line "
+                            + (position + 1));
+                }
+                if (line.op == ' ') {
+                    out.append(line.text);
+                }
+                position++;
+            }
+        }
+        while (position < source.size()) {
+            out.append(source.get(position++));
+        }
+        return out.toString();
+    }
+
+    private static List<Hunk> parse(String diff) {
+        List<Hunk> hunks = new ArrayList<>();
+        Hunk hunk = null;
+        for (String raw : splitLines(diff)) {
+            if (raw.startsWith("@@")) {
+                Matcher header = HUNK_HEADER.matcher(stripTerminator(raw));
+                if (!header.matches()) {
+                    throw new IllegalArgumentException("Malformed hunk header: " + stripTerminator(raw));
+                }
+                checkComplete(hunk);
+                hunk = new Hunk(Integer.parseInt(header.group(1)), count(header.group(2)), count(header.group(4)));
+                hunks.add(hunk);
+            } else if (hunk == null || hunk.isComplete()) {
+                // File headers ("---", "+++", "diff", "index") and anything between hunks
+                if (hunk != null && raw.startsWith("\\")) {
+                    hunk.dropLastTerminator();
+                }
+            } else if (raw.startsWith("\\")) {
+                hunk.dropLastTerminator();
+            } else {
+                char op = raw.isEmpty() || raw.equals("\n") || raw.equals("\r\n") ? ' ' : raw.charAt(0);
+                if (op != ' ' && op != '-' && op != '+') {
+                    throw new IllegalArgumentException("Unexpected line in hunk: " + stripTerminator(raw));
+                }
+                String text = raw.isEmpty() || raw.charAt(0) != op ? raw : raw.substring(1);
+                hunk.add(new Line(op, text.isEmpty() ? "\n" : text));
+            }
+        }
+        checkComplete(hunk);
+        return hunks;
+    }
+
+    private static void checkComplete(Hunk hunk) {
+        if (hunk != null && !hunk.isComplete()) {
+            throw new IllegalArgumentException("Hunk at line " + hunk.oldStart + " is shorter than its header says");
+        }
+    }
+
+    private static int count(String group) {
+        return group == null ? 1 : Integer.parseInt(group);
+    }
+
+    /**
+     * Split into lines, each keeping its terminator; the last line may have none
+     */
+    static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    private static String stripTerminator(String line) {
+        if (line.endsWith("\r\n")) {
+            return line.substring(0, line.length() - 2);
+        }
+        return line.endsWith("\n") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private record Line(char op, String text) {}
+
+    private static final class Hunk {
+        final int oldStart;
+        final int oldCount;
+        final int newCount;
+        final List<Line> lines = new ArrayList<>();
+        int oldSeen;
+        int newSeen;
+
+        Hunk(int oldStart, int oldCount, int newCount) {
+            this.oldStart = oldStart;
+            this.oldCount = oldCount;
+            this.newCount = newCount;
+        }
+
+        void add(Line line) {
+            if (line.op != '+') {
+                oldSeen++;
+            }
+            if (line.op != '-') {
+                newSeen++;
+            }
+            if (oldSeen > oldCount || newSeen > newCount) {
+                throw new IllegalArgumentException("Hunk at line " + oldStart + " is longer than its header says");
+            }
+            lines.add(line);
+        }
+
+        boolean isComplete() {
+            return oldSeen == oldCount && newSeen == newCount;
+        }
+
+        void dropLastTerminator() {
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("Misplaced \"No newline\" marker");
+            }
+            Line last = lines.remove(lines.size() - 1);
+            lines.add(new Line(last.op, stripTerminator(last.text)));
+        }
+    }
+}
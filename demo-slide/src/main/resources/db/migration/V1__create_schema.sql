@@ -0,0 +1,40 @@
+-- Templates: content is stored gzip-compressed; ids come from a pooled sequence so inserts batch
+CREATE SEQUENCE templates_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE templates (
+    id              BIGINT       NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    name_normalized VARCHAR(255) NOT NULL,
+    display_name    VARCHAR(255) NOT NULL,
+    description     VARCHAR(255),
+    file_path       VARCHAR(255) NOT NULL,
+    content_gzip    BLOB         NOT NULL,
+    content_hash    VARCHAR(64),
+    theme           VARCHAR(255),
+    is_active       BOOLEAN,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    version         BIGINT,
+    CONSTRAINT pk_templates PRIMARY KEY (id),
+    CONSTRAINT uk_templates_name UNIQUE (name),
+    CONSTRAINT uk_templates_name_normalized UNIQUE (name_normalized)
+);
+
+-- Keyset pagination, one per sort key with id as tiebreaker
+CREATE INDEX idx_templates_created_at_id ON templates (created_at, id);
+CREATE INDEX idx_templates_updated_at_id ON templates (updated_at, id);
+CREATE INDEX idx_templates_display_name_id ON templates (display_name, id);
+
+-- Active listings and theme filters
+CREATE INDEX idx_templates_active_created_at ON templates (is_active, created_at);
+CREATE INDEX idx_templates_theme_active ON templates (theme, is_active);
+
+-- Outbox of template file writes, drained after commit
+CREATE TABLE template_file_outbox (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    template_id BIGINT       NOT NULL,
+    file_path   VARCHAR(255) NOT NULL,
+    operation   ENUM ('DELETE', 'WRITE') NOT NULL,
+    created_at  TIMESTAMP(6),
+    CONSTRAINT pk_template_file_outbox PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+-- Deck structure parsed from content at write time; NULL slide_count marks rows not parsed yet
+ALTER TABLE templates ADD COLUMN title VARCHAR(255);
+ALTER TABLE templates ADD COLUMN slide_count INTEGER;
+
+-- Byte range of each top-level <section> in the decompressed UTF-8 content
+CREATE TABLE template_slides (
+    template_id BIGINT  NOT NULL,
+    slide_index INTEGER NOT NULL,
+    byte_offset BIGINT  NOT NULL,
+    byte_length INTEGER NOT NULL,
+    CONSTRAINT pk_template_slides PRIMARY KEY (template_id, slide_index),
+    CONSTRAINT fk_template_slides_template FOREIGN KEY (template_id) REFERENCES templates (id) ON DELETE CASCADE
+);
+
+-- URLs of stylesheets, scripts, images and backgrounds referenced by the deck
+CREATE TABLE template_assets (
+    template_id BIGINT        NOT NULL,
+    asset_index INTEGER       NOT NULL,
+    url         VARCHAR(2048) NOT NULL,
+    CONSTRAINT pk_template_assets PRIMARY KEY (template_id, asset_index),
+    CONSTRAINT fk_template_assets_template FOREIGN KEY (template_id) REFERENCES templates (id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- Content history: a full gzip snapshot every few revisions, forward line deltas in between
+CREATE SEQUENCE template_revisions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE template_revisions (
+    id             BIGINT      NOT NULL,
+    template_id    BIGINT      NOT NULL,
+    revision       BIGINT      NOT NULL,
+    kind           ENUM ('DELTA', 'SNAPSHOT') NOT NULL,
+    chain_length   INTEGER     NOT NULL,
+    data           BLOB        NOT NULL,
+    stored_bytes   INTEGER     NOT NULL,
+    content_length INTEGER     NOT NULL,
+    content_hash   VARCHAR(64) NOT NULL,
+    created_at     TIMESTAMP(6),
+    CONSTRAINT pk_template_revisions PRIMARY KEY (id),
+    CONSTRAINT uk_template_revisions_revision UNIQUE (template_id, revision),
+    CONSTRAINT fk_template_revisions_template FOREIGN KEY (template_id) REFERENCES templates (id) ON DELETE CASCADE
+);
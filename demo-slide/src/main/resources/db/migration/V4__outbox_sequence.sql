@@ -0,0 +1,3 @@
+-- Outbox ids from a pooled sequence instead of IDENTITY, so outbox inserts are JDBC-batched too
+ALTER TABLE template_file_outbox ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE template_file_outbox_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM template_file_outbox) INCREMENT BY 50;
@@ -0,0 +1,25 @@
+-- Cross-instance change log: each template write appends a row in its own transaction, and the
+-- other instances poll it to invalidate their caches and search index
+CREATE TABLE template_change_log (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    template_id    BIGINT       NOT NULL,
+    template_name  VARCHAR(255) NOT NULL,
+    change_type    VARCHAR(16)  NOT NULL,
+    version        BIGINT,
+    changed_fields VARCHAR(255) NOT NULL,
+    node_id        VARCHAR(64)  NOT NULL,
+    created_at     TIMESTAMP(6) DEFAULT LOCALTIMESTAMP NOT NULL,
+    CONSTRAINT pk_template_change_log PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_template_change_log_created_at ON template_change_log (created_at);
+
+-- Leases for work only one instance may do at a time
+CREATE TABLE cluster_lock (
+    name       VARCHAR(64) NOT NULL,
+    holder     VARCHAR(128),
+    expires_at TIMESTAMP(6),
+    CONSTRAINT pk_cluster_lock PRIMARY KEY (name)
+);
+
+INSERT INTO cluster_lock (name) VALUES ('template-files'), ('template-sync');
@@ -0,0 +1,9 @@
+-- Outbox ids come in per-instance blocks of the pooled sequence, so across instances they do not
+-- follow insert order. The database numbers rows in insert order here instead; the writer drains by it.
+CREATE SEQUENCE template_file_outbox_order_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM template_file_outbox);
+ALTER TABLE template_file_outbox ADD COLUMN seq BIGINT;
+UPDATE template_file_outbox SET seq = id;
+ALTER TABLE template_file_outbox ALTER COLUMN seq SET DEFAULT NEXT VALUE FOR template_file_outbox_order_seq;
+ALTER TABLE template_file_outbox ALTER COLUMN seq SET NOT NULL;
+
+CREATE INDEX idx_template_file_outbox_seq ON template_file_outbox (seq);
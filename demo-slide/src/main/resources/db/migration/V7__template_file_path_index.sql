@@ -0,0 +1,2 @@
+-- The directory sync resolves templates by the file backing them
+CREATE INDEX idx_templates_file_path ON templates (file_path);
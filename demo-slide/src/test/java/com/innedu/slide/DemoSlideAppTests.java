@@ -3,7 +3,7 @@ package com.innedu.slide;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:slide-tests")
 class DemoSlideAppTests {
 
     @Test
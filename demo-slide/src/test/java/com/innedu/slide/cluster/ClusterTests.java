@@ -0,0 +1,265 @@
+package com.innedu.slide.cluster;
+
+import com.innedu.slide.DemoSlideApp;
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.dto.TemplateCreateRequest;
+import com.innedu.slide.dto.TemplateUpdateRequest;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.exception.TemplateAlreadyExistsException;
+import com.innedu.slide.exception.TemplateNotFoundException;
+import com.innedu.slide.repository.TemplateRepository;
+import com.innedu.slide.service.TemplateChangeFeed;
+import com.innedu.slide.service.TemplateFileWriter;
+import com.innedu.slide.service.TemplateService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Three instances in one JVM sharing an in-memory database and a templates directory
+ */
+class ClusterTests {
+
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = 5000;
+
+    @TempDir
+    static Path templatesDir;
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new SpringApplicationBuilder(DemoSlideApp.class).run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:cluster-tests;DB_CLOSE_DELAY=-1",
+                    "--app.templates.path=" + templatesDir,
+                    "--app.cluster.enabled=true",
+                    "--app.cluster.node-id=node-" + i,
+                    "--app.cluster.poll-interval-ms=50",
+                    "--app.templates.watch.debounce-ms=50"));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    private static <T> T bean(int node, Class<T> type) {
+        return nodes.get(node).getBean(type);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("converged in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static boolean hasVersion(int node, Long id, long version) {
+        try {
+            return bean(node, TemplateService.class).getTemplateById(id).getVersion() == version;
+        } catch (TemplateNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean finds(int node, String text, Long id) {
+        return bean(node, TemplateService.class).searchTemplates(text, 0, 10).hits().stream()
+                .anyMatch(hit -> hit.template().getId().equals(id));
+    }
+
+    @Test
+    void changesOnOneInstanceReachTheOthers() throws InterruptedException {
+        TemplateService first = bean(0, TemplateService.class);
+        Template created = first.createTemplate(new TemplateCreateRequest(
+                "cluster-deck", "Cluster Deck", null, "<section>alpha</section>", "black"));
+        Long id = created.getId();
+
+        await(() -> finds(1, "alpha", id) && finds(2, "alpha", id));
+        // Cached on the other instances from here on
+        assertThat(bean(1, TemplateService.class).getTemplateById(id).getVersion()).isEqualTo(created.getVersion());
+        assertThat(bean(2, TemplateService.class).getTemplateById(id).getVersion()).isEqualTo(created.getVersion());
+
+        Template updated = first.updateTemplate(id, new TemplateUpdateRequest(
+                "Cluster Deck", null, "<section>bravo</section>", "white", true));
+        await(() -> hasVersion(1, id, updated.getVersion()) && hasVersion(2, id, updated.getVersion()));
+        await(() -> finds(2, "bravo", id) && !finds(2, "alpha", id));
+        assertThat(bean(1, TemplateService.class).getTemplateById(id).getContent()).isEqualTo("<section>bravo</section>");
+
+        bean(2, TemplateService.class).deleteTemplate(id);
+        await(() -> !finds(0, "bravo", id) && !finds(1, "bravo", id));
+        assertThatThrownBy(() -> first.getTemplateById(id)).isInstanceOf(TemplateNotFoundException.class);
+        assertThat(bean(0, TemplateChangeFeed.class).stats().lastSequence()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void filesAreWrittenOnceToTheSharedDirectory() throws Exception {
+        Template created = bean(1, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "shared-file", "Shared File", null, "<section>charlie</section>", "black"));
+
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(Files.readString(templatesDir.resolve(created.getFilePath()))).isEqualTo("<section>charlie</section>");
+        await(() -> finds(0, "charlie", created.getId()) && finds(2, "charlie", created.getId()));
+    }
+
+    @Test
+    void deleteOnOneInstanceWinsOverAnEarlierUpdateOnAnother() throws Exception {
+        // Both directions, so one of them pairs an update id from the higher outbox id block with
+        // a delete id from the lower one, whichever instance took its block first
+        Template first = bean(0, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "delete-wins-a", "Delete Wins A", null, "<section>delta</section>", "black"));
+        Template second = bean(1, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "delete-wins-b", "Delete Wins B", null, "<section>echo</section>", "black"));
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(templatesDir.resolve(first.getFilePath())).exists();
+        assertThat(templatesDir.resolve(second.getFilePath())).exists();
+
+        // Holding the outbox lock keeps every instance from draining, so both tasks queue up
+        bean(0, ClusterLock.class).call(ClusterLock.TEMPLATE_FILES, () -> {
+            bean(0, TemplateService.class).updateTemplate(first.getId(), new TemplateUpdateRequest(
+                    "Delete Wins A", null, "<section>delta 2</section>", "black", true));
+            bean(1, TemplateService.class).deleteTemplate(first.getId());
+            bean(1, TemplateService.class).updateTemplate(second.getId(), new TemplateUpdateRequest(
+                    "Delete Wins B", null, "<section>echo 2</section>", "black", true));
+            bean(0, TemplateService.class).deleteTemplate(second.getId());
+            return null;
+        });
+
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(templatesDir.resolve(first.getFilePath())).doesNotExist();
+        assertThat(templatesDir.resolve(second.getFilePath())).doesNotExist();
+    }
+
+    @Test
+    void filesWrittenByAnotherInstanceDoNotDuplicateTheirTemplate() throws Exception {
+        // Not derivable from the file name: the other instances' watchers see l-p-tr-nh-c-m.html
+        // as a file they did not write, and must find the template by its path
+        Template created = bean(0, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "Lập trình cụm", "Lập trình cụm", null, "<section>golf</section>", "black"));
+        bean(1, TemplateService.class).updateTemplate(created.getId(), new TemplateUpdateRequest(
+                "Lập trình cụm", null, "<section>golf 2</section>", "black", true));
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        await(() -> finds(2, "golf", created.getId()));
+
+        // Several watcher debounce periods
+        Thread.sleep(1000);
+        assertThat(bean(2, JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM templates WHERE file_path = ?", Long.class, created.getFilePath())).isEqualTo(1);
+    }
+
+    @Test
+    void sharedFileOutlivesOneOfItsTemplates() throws Exception {
+        Template first = bean(0, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "Shared-Path", "Shared-Path", null, "<section>hotel</section>", "black"));
+        // A distinct name for the same file name is refused...
+        assertThatThrownBy(() -> bean(1, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                "shared path", "shared path", null, "<section>india</section>", "black")))
+                .isInstanceOf(TemplateAlreadyExistsException.class);
+        // ...but rows stored before that check can still share one
+        Template second = new Template("shared path", "shared path", first.getFilePath(), "<section>india</section>");
+        second.setIsActive(true);
+        second = bean(1, TemplateRepository.class).saveAndFlush(second);
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        Path file = templatesDir.resolve(first.getFilePath());
+        assertThat(Files.readString(file)).isEqualTo("<section>hotel</section>");
+
+        // The file goes to the template still backed by it
+        bean(2, TemplateService.class).deleteTemplate(first.getId());
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(Files.readString(file)).isEqualTo("<section>india</section>");
+
+        bean(0, TemplateService.class).deleteTemplate(second.getId());
+        for (int node = 0; node < nodes.size(); node++) {
+            assertThat(bean(node, TemplateFileWriter.class).awaitDrained(CONVERGENCE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void changesBehindAnUncommittedEntryArriveWithinAPollInterval() throws Exception {
+        JdbcTemplate jdbcTemplate = bean(0, JdbcTemplate.class);
+        String insert = "INSERT INTO template_change_log "
+                + "(template_id, template_name, change_type, version, changed_fields, node_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection inFlight = bean(0, DataSource.class).getConnection()) {
+            // Takes the next id and holds it uncommitted, leaving a gap in the log
+            inFlight.setAutoCommit(false);
+            try (PreparedStatement statement = inFlight.prepareStatement(insert)) {
+                statement.setLong(1, -1);
+                statement.setString(2, "in-flight");
+                statement.setString(3, "UPDATED");
+                statement.setLong(4, 0);
+                statement.setString(5, "");
+                statement.setString(6, "elsewhere");
+                statement.executeUpdate();
+            }
+            // More entries queue up behind the gap than one poll reads
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 1200; i++) {
+                rows.add(new Object[] {-1L, "filler", "UPDATED", 0L, "", "elsewhere"});
+            }
+            jdbcTemplate.batchUpdate(insert, rows);
+
+            Template created = bean(0, TemplateService.class).createTemplate(new TemplateCreateRequest(
+                    "behind-gap", "Behind Gap", null, "<section>foxtrot</section>", "black"));
+            await(() -> finds(1, "foxtrot", created.getId()) && finds(2, "foxtrot", created.getId()));
+
+            inFlight.rollback();
+        }
+    }
+
+    @Test
+    void leaseIsRenewedWhileTheWorkRuns() throws Exception {
+        ClusterLock shortLease = new ClusterLock(bean(0, ClusterNode.class), bean(0, JdbcTemplate.class),
+                bean(0, PlatformTransactionManager.class), bean(0, BackgroundThreads.class), 300);
+        ClusterLock other = bean(1, ClusterLock.class);
+        try {
+            boolean held = shortLease.call(ClusterLock.TEMPLATE_SYNC, () -> {
+                // Several lease lengths: without renewal the other instance would take over
+                for (int i = 0; i < 6; i++) {
+                    Thread.sleep(200);
+                    if (other.tryRun(ClusterLock.TEMPLATE_SYNC, () -> null)) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            assertThat(held).isTrue();
+            assertThat(other.tryRun(ClusterLock.TEMPLATE_SYNC, () -> null)).isTrue();
+        } finally {
+            shortLease.shutdown();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.innedu.slide.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RevealAssetResolverTests {
+
+    private static final String CSS = "section { color : black }";
+
+    @TempDir
+    Path revealDir;
+
+    private ResourceHttpRequestHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(revealDir.resolve("dist/theme"));
+        Files.writeString(revealDir.resolve("dist/theme/black-contrast.css"), CSS);
+        Files.writeString(revealDir.resolve("dist/theme/black.css"), CSS);
+
+        // The /reveal/** chain of WebConfig
+        ContentVersionStrategy versionStrategy = new ContentVersionStrategy();
+        handler = new ResourceHttpRequestHandler();
+        handler.setLocations(List.of(new FileSystemResource(revealDir.toString() + "/")));
+        handler.setResourceResolvers(List.of(
+                new CachingResourceResolver(new ConcurrentMapCache("reveal")),
+                new EncodedResourceResolver(),
+                new RevealAssetResolver(versionStrategy),
+                new VersionResourceResolver().addVersionStrategy(versionStrategy, "/**"),
+                new PathResourceResolver()));
+        handler.afterPropertiesSet();
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reveal/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+
+    @Test
+    void plainPathWithAHyphenIsRevalidated() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = get("dist/theme/black-contrast.css");
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        }
+    }
+
+    @Test
+    void onlyAMatchingContentHashIsImmutable() throws Exception {
+        String hash = DigestUtils.md5DigestAsHex(CSS.getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = get("dist/theme/black-" + hash + ".css");
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=31536000, public, immutable");
+            assertThat(response.getContentAsString()).isEqualTo(CSS);
+        }
+        assertThat(get("dist/theme/black.css").getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThatThrownBy(() -> get("dist/theme/black-0123456789abcdef0123456789abcdef.css"))
+                .isInstanceOf(NoResourceFoundException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package com.innedu.slide.controller;
+
+import com.innedu.slide.dto.TemplateUpdateRequest;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.exception.GlobalExceptionHandler;
+import com.innedu.slide.metrics.TemplateMetrics;
+import com.innedu.slide.service.TemplateExportService;
+import com.innedu.slide.service.TemplateService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TemplateControllerTests {
+
+    private static final String UPDATE = """
+            {"displayName": "Deck", "content": "<section>one</section>"}""";
+
+    private final TemplateService templateService = mock(TemplateService.class);
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new TemplateController(templateService, mock(TemplateExportService.class),
+                    mock(TemplateMetrics.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    private static ObjectOptimisticLockingFailureException staleWrite() {
+        return new ObjectOptimisticLockingFailureException(Template.class, 7L);
+    }
+
+    @Test
+    void stalePutsAreVersionConflicts() throws Exception {
+        Template updated = new Template("deck", "Deck", "deck.html", "<section>one</section>");
+        updated.setId(7L);
+        updated.setVersion(1L);
+        // Both PUTs read version 0; the first flush wins, the others fail the version check
+        when(templateService.updateTemplate(eq(7L), any(TemplateUpdateRequest.class)))
+                .thenReturn(updated)
+                .thenThrow(staleWrite())
+                .thenThrow(staleWrite());
+
+        mvc.perform(put("/api/templates/7").contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+                .andExpect(status().isOk());
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(put("/api/templates/7").contentType(MediaType.APPLICATION_JSON).content(UPDATE))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.error").value("VERSION_CONFLICT"));
+        }
+    }
+
+    @Test
+    void staleDeleteIsAVersionConflict() throws Exception {
+        doThrow(staleWrite()).when(templateService).deleteTemplate(7L);
+
+        mvc.perform(delete("/api/templates/7"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("VERSION_CONFLICT"));
+    }
+}
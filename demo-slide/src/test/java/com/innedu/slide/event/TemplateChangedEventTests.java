@@ -0,0 +1,50 @@
+package com.innedu.slide.event;
+
+import com.innedu.slide.dto.TemplateChangeResponse;
+import com.innedu.slide.entity.Template;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateChangedEventTests {
+
+    private static Template template() {
+        Template template = new Template("t1", "Intro", "t1.html", "<section>one</section>");
+        template.setId(1L);
+        template.setVersion(3L);
+        return template;
+    }
+
+    @Test
+    void updateReportsOnlyTheFieldsThatChanged() {
+        Template template = template();
+        TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+        template.setTheme("white");
+        template.setDisplayName("Intro");
+        template.setContent("<section>two</section>");
+
+        TemplateChangedEvent event = TemplateChangedEvent.updated(template, before);
+
+        assertThat(event.getChangedFields()).containsExactly("theme", "content");
+        assertThat(event.getContent()).isEqualTo("<section>two</section>");
+        TemplateChangeResponse change = TemplateChangeResponse.from(event);
+        assertThat(change.values()).containsExactly(Map.entry("theme", "white"));
+        assertThat(change.version()).isEqualTo(3L);
+    }
+
+    @Test
+    void metadataOnlyUpdateCarriesNoContent() {
+        Template template = template();
+        TemplateChangedEvent.Snapshot before = TemplateChangedEvent.Snapshot.of(template);
+        template.setIsActive(false);
+
+        TemplateChangedEvent event = TemplateChangedEvent.updated(template, before);
+
+        assertThat(event.getChangedFields()).containsExactly("isActive");
+        assertThat(event.getContent()).isNull();
+        assertThat(TemplateChangedEvent.created(template).getChangedFields()).isEqualTo(TemplateChangedEvent.FIELDS);
+        assertThat(TemplateChangedEvent.deleted(template).getChangedFields()).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.innedu.slide.parser;
+
+import com.innedu.slide.entity.SlideRange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeckParserTests {
+
+    private static final String DECK = """
+            <!DOCTYPE html>
+            <html>
+              <head>
+                <title>Bài giảng &amp; ví dụ</title>
+                <link rel="stylesheet" href="../dist/reveal.css" />
+                <link rel="stylesheet" href="../dist/theme/sky.css" />
+                <!-- <link rel="stylesheet" href="../dist/theme/moon.css" /> -->
+              </head>
+              <body>
+                <div class="reveal"><div class="slides">
+                  <section data-background-image="img/bg.png"><h1>Chào</h1></section>
+                  <section>
+                    <section>Dọc 1</section>
+                    <section><img src='img/chart.svg'></section>
+                  </section>
+                  <section><script>var s = "<section>not a slide</section>";</script></section>
+                </div></div>
+                <script src="../dist/reveal.js"></script>
+              </body>
+            </html>
+            """;
+
+    private static String slide(String html, SlideRange range) {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        return new String(bytes, (int) range.byteOffset(), range.byteLength(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void extractsTitleThemeAndAssets() {
+        DeckStructure structure = DeckParser.parse(DECK);
+
+        assertThat(structure.title()).isEqualTo("Bài giảng & ví dụ");
+        assertThat(structure.theme()).isEqualTo("sky");
+        assertThat(structure.assets()).containsExactly(
+                "../dist/reveal.css", "../dist/theme/sky.css", "img/bg.png", "img/chart.svg", "../dist/reveal.js");
+    }
+
+    @Test
+    void indexesTopLevelSectionsByUtf8ByteRange() {
+        DeckStructure structure = DeckParser.parse(DECK);
+
+        assertThat(structure.slideCount()).isEqualTo(3);
+        assertThat(slide(DECK, structure.slides().get(0)))
+                .isEqualTo("<section data-background-image=\"img/bg.png\"><h1>Chào</h1></section>");
+        assertThat(slide(DECK, structure.slides().get(1))).startsWith("<section>\n").endsWith("</section>")
+                .contains("Dọc 1", "chart.svg");
+        assertThat(slide(DECK, structure.slides().get(2))).contains("not a slide").endsWith("</script></section>");
+    }
+
+    @Test
+    void handlesFragmentsAndEmptyContent() {
+        assertThat(DeckParser.parse("<section>only</section>").slideCount()).isEqualTo(1);
+        assertThat(DeckParser.parse("plain text < 3").slideCount()).isZero();
+        assertThat(DeckParser.parse(null)).isEqualTo(DeckStructure.EMPTY);
+    }
+}
@@ -0,0 +1,74 @@
+package com.innedu.slide.render;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineAssetCacheTests {
+
+    @TempDir
+    Path reveal;
+
+    private Path write(String path, String content) throws IOException {
+        Path file = reveal.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    @Test
+    void stylesheetIsMinifiedWithImportsAndFontsInlined() throws IOException {
+        write("dist/theme/fonts/source.woff", "font");
+        write("dist/theme/fonts/source.css",
+                "@font-face {\n  font-family: 'Source';\n  src: url(source.woff) format('woff');\n}\n");
+        Path theme = write("dist/theme/black.css",
+                "/* generated */\n@import url(https://fonts.example.com/lato.css);\n@import url(./fonts/source.css);\n"
+                        + ".reveal  h1 , .reveal h2 {\n  color : #fff ;\n}\n");
+        OfflineAssetCache cache = new OfflineAssetCache(reveal.toString(), 1 << 20);
+
+        String css = cache.stylesheet(theme);
+
+        assertThat(css).doesNotContain("generated", "fonts.example.com", "source.woff", "\n")
+                .contains("@font-face{font-family: 'Source';src: url(data:font/woff;base64,Zm9udA==) format('woff')}")
+                .endsWith(".reveal h1,.reveal h2{color : #fff}");
+    }
+
+    @Test
+    void processedAssetsAreReusedUntilAnInputChanges() throws IOException {
+        Path font = write("dist/theme/fonts/a.woff", "one");
+        Path theme = write("dist/theme/white.css", "@font-face{src:url(fonts/a.woff)}");
+        OfflineAssetCache cache = new OfflineAssetCache(reveal.toString(), 1 << 20);
+
+        String first = cache.stylesheet(theme);
+        assertThat(cache.stylesheet(theme)).isSameAs(first);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+
+        Files.writeString(font, "two");
+        Files.setLastModifiedTime(font, FileTime.fromMillis(Files.getLastModifiedTime(font).toMillis() + 2000));
+        assertThat(cache.stylesheet(theme)).isNotEqualTo(first).contains("dHdv");
+    }
+
+    @Test
+    void scriptsCannotCloseTheirElement() throws IOException {
+        Path script = write("dist/reveal.js", "var s='</script>';\n//# sourceMappingURL=reveal.js.map\n");
+        OfflineAssetCache cache = new OfflineAssetCache(reveal.toString(), 1 << 20);
+
+        assertThat(cache.script(script)).startsWith("var s='<\\/script>';").doesNotContain("sourceMappingURL");
+    }
+
+    @Test
+    void onlyLocalRevealFilesResolve() {
+        OfflineAssetCache cache = new OfflineAssetCache(reveal.toString(), 1 << 20);
+
+        assertThat(cache.resolve("/reveal/templates/", "img/a.png")).isEqualTo(reveal.resolve("templates/img/a.png"));
+        assertThat(cache.resolve("/reveal/templates/", "../dist/reveal.css")).isEqualTo(reveal.resolve("dist/reveal.css"));
+        assertThat(cache.resolve("/reveal/templates/", "../../etc/passwd")).isNull();
+        assertThat(cache.resolve("/reveal/templates/", "https://example.com/a.png")).isNull();
+        assertThat(cache.resolve("/reveal/templates/", "data:image/png;base64,AAAA")).isNull();
+    }
+}
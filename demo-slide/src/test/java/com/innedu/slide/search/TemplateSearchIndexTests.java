@@ -0,0 +1,59 @@
+package com.innedu.slide.search;
+
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateSearchIndexTests {
+
+    private final TemplateSearchIndex index = new TemplateSearchIndex(null, null);
+
+    private static Template template(long id, String displayName, String description, String content) {
+        Template template = new Template("t" + id, displayName, "t" + id + ".html", content);
+        template.setId(id);
+        template.setDescription(description);
+        return template;
+    }
+
+    @Test
+    void foldsVietnameseDiacritics() {
+        index.onTemplateChanged(TemplateChangedEvent.created(
+            template(1, "Bài giảng Tiếng Việt", "Ngữ pháp", "<section><h1>Đại từ nhân xưng</h1></section>")));
+
+        assertThat(index.search("tieng viet", 0, 10).totalHits()).isEqualTo(1);
+        assertThat(index.search("DAI TU", 0, 10).hits().get(0).snippet()).startsWith("Đại từ");
+    }
+
+    @Test
+    void ranksDisplayNameAboveSlideTextAndMatchesPrefixes() {
+        index.onTemplateChanged(TemplateChangedEvent.created(
+            template(1, "Intro", null, "<section>business plan</section>")));
+        index.onTemplateChanged(TemplateChangedEvent.created(
+            template(2, "Business Template", null, "<section>hello</section>")));
+
+        TemplateSearchIndex.SearchResult result = index.search("busin", 0, 10);
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.hits().get(0).template().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void appliesUpdatesAndDeletesIncrementally() {
+        Template template = template(1, "Deck", null, "<section>alpha</section>");
+        index.onTemplateChanged(TemplateChangedEvent.created(template));
+
+        template.setContent("<section>beta</section>");
+        index.onTemplateChanged(TemplateChangedEvent.updated(template, true));
+        assertThat(index.search("alpha", 0, 10).totalHits()).isZero();
+        assertThat(index.search("beta", 0, 10).totalHits()).isEqualTo(1);
+
+        template.setDisplayName("Renamed");
+        index.onTemplateChanged(TemplateChangedEvent.updated(template, false));
+        assertThat(index.search("renamed beta", 0, 10).totalHits()).isEqualTo(1);
+
+        index.onTemplateChanged(TemplateChangedEvent.deleted(template));
+        assertThat(index.search("beta", 0, 10).totalHits()).isZero();
+        assertThat(index.termCount()).isZero();
+    }
+}
@@ -0,0 +1,194 @@
+package com.innedu.slide.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.config.BackgroundThreads;
+import com.innedu.slide.controller.TemplateChangeController;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.event.TemplateChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TemplateChangeFeedTests {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    // Sender threads start working once the gate opens
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private TemplateChangeFeed feed;
+    private MockMvc mvc;
+
+    private void start(int historySize, int bufferSize) {
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                runnable.run();
+            });
+            thread.setDaemon(true);
+            return thread;
+        };
+        BackgroundThreads backgroundThreads = mock(BackgroundThreads.class);
+        when(backgroundThreads.factory(anyString())).thenReturn(factory);
+        feed = new TemplateChangeFeed(new ObjectMapper().findAndRegisterModules(), backgroundThreads,
+                historySize, bufferSize, 3600, 60_000);
+        mvc = MockMvcBuilders.standaloneSetup(new TemplateChangeController(feed)).build();
+    }
+
+    @AfterEach
+    void stop() {
+        gate.countDown();
+        feed.shutdown();
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            long id = feed.stats().lastSequence() + 1;
+            Template template = new Template("deck-" + id, "Deck " + id, "deck-" + id + ".html", "<section></section>");
+            template.setId(id);
+            template.setVersion(0L);
+            feed.onTemplateChanged(TemplateChangedEvent.created(template));
+        }
+    }
+
+    private MvcResult open(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder get = get("/api/templates/changes");
+        if (lastEventId != null) {
+            get.header("Last-Event-ID", lastEventId);
+        }
+        return mvc.perform(get).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        return open(lastEventId).getResponse();
+    }
+
+    /**
+     * The frames written so far as "name id": "connected", "change" or "reset", and the event id
+     */
+    private static List<String> frames(MockHttpServletResponse response) throws Exception {
+        List<String> frames = new ArrayList<>();
+        for (String frame : response.getContentAsString().split("\n\n")) {
+            String name = null;
+            String id = null;
+            for (String line : frame.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.equals(":connected")) {
+                    name = "connected";
+                }
+            }
+            if (name != null) {
+                frames.add(name + " " + id);
+            }
+        }
+        return frames;
+    }
+
+    private static List<String> awaitFrames(MockHttpServletResponse response, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        List<String> frames = frames(response);
+        while (frames.size() < count) {
+            assertThat(System.currentTimeMillis()).as("%d frames written, got %s", count, frames).isLessThan(deadline);
+            Thread.sleep(10);
+            frames = frames(response);
+        }
+        return frames;
+    }
+
+    private String epochOf(MockHttpServletResponse response) throws Exception {
+        String connected = awaitFrames(response, 1).get(0);
+        return connected.substring("connected ".length(), connected.lastIndexOf('-'));
+    }
+
+    @Test
+    void resumesFromLastEventId() throws Exception {
+        start(16, 16);
+        gate.countDown();
+        MockHttpServletResponse live = subscribe(null);
+        String epoch = epochOf(live);
+
+        publish(3);
+
+        assertThat(awaitFrames(live, 4)).containsExactly("connected " + epoch + "-0",
+                "change " + epoch + "-1", "change " + epoch + "-2", "change " + epoch + "-3");
+        MockHttpServletResponse resumed = subscribe(epoch + "-1");
+        assertThat(awaitFrames(resumed, 3)).containsExactly("connected " + epoch + "-1",
+                "change " + epoch + "-2", "change " + epoch + "-3");
+        assertThat(resumed.getContentAsString()).contains("\"name\":\"deck-3\"").doesNotContain("\"name\":\"deck-1\"");
+        assertThat(feed.stats().resets()).isZero();
+    }
+
+    @Test
+    void resetsOnceTheMissedChangesLeftTheRingBuffer() throws Exception {
+        start(4, 16);
+        gate.countDown();
+        String epoch = epochOf(subscribe(null));
+
+        publish(6);
+
+        // 4 changes buffered: 3 to 6, so resuming after 2 is the oldest position that can replay
+        assertThat(awaitFrames(subscribe(epoch + "-2"), 5)).containsExactly("connected " + epoch + "-2",
+                "change " + epoch + "-3", "change " + epoch + "-4", "change " + epoch + "-5", "change " + epoch + "-6");
+        assertThat(awaitFrames(subscribe(epoch + "-1"), 1)).containsExactly("reset " + epoch + "-6");
+        assertThat(feed.stats().resets()).isEqualTo(1);
+    }
+
+    @Test
+    void resetsForAnIdOfAnotherRun() throws Exception {
+        start(16, 16);
+        gate.countDown();
+        String epoch = epochOf(subscribe(null));
+        publish(2);
+
+        assertThat(awaitFrames(subscribe("0000-1"), 1)).containsExactly("reset " + epoch + "-2");
+        assertThat(awaitFrames(subscribe(epoch + "-3"), 1)).containsExactly("reset " + epoch + "-2");
+        assertThat(awaitFrames(subscribe(epoch + "-x"), 1)).containsExactly("reset " + epoch + "-2");
+        assertThat(feed.stats().resets()).isEqualTo(3);
+    }
+
+    @Test
+    void disconnectsASubscriberWhoseBufferIsFull() throws Exception {
+        start(16, 2);
+        MvcResult slow = open(null);
+        assertThat(feed.stats().subscribers()).isEqualTo(1);
+
+        // Nothing is sent while the gate is closed: "connected" and one change fill the buffer
+        publish(1);
+        assertThat(feed.stats().disconnectedSlow()).isZero();
+        publish(1);
+        assertThat(feed.stats().disconnectedSlow()).isEqualTo(1);
+        assertThat(feed.stats().subscribers()).isZero();
+
+        // Its queue is dropped and the response completed
+        gate.countDown();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!WebAsyncUtils.getAsyncManager(slow.getRequest()).hasConcurrentResult()) {
+            assertThat(System.currentTimeMillis()).as("completed in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        assertThat(frames(slow.getResponse())).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.innedu.slide.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.repository.TemplateRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TemplateExportServiceTests {
+
+    private final TemplateRepository templateRepository = mock(TemplateRepository.class);
+    private final TemplateExportService exportService = new TemplateExportService(templateRepository,
+            mock(EntityManager.class), new ObjectMapper().findAndRegisterModules(), null);
+
+    private static Template template(long id, String name, String filePath) {
+        Template template = new Template(name, name, filePath, "<section>" + name + "</section>");
+        template.setId(id);
+        return template;
+    }
+
+    @Test
+    void zipEntriesStayUniqueWhenFilePathsCollide() throws IOException {
+        // Both names map to the same file name
+        when(templateRepository.streamAll()).thenReturn(Stream.of(
+                template(1, "Lập trình", "l-p-tr-nh.html"), template(2, "Lớp trình", "l-p-tr-nh.html")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exportService.exportZip(out)).isEqualTo(2);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                names.add(entry.getName());
+            }
+        }
+        assertThat(names).containsExactly("l-p-tr-nh.html", "l-p-tr-nh-2.html");
+    }
+
+    @Test
+    void emptyNdjsonExportIsEmpty() throws IOException {
+        when(templateRepository.streamAll()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exportService.exportNdjson(out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.innedu.slide.service;
+
+import com.innedu.slide.dto.TemplateCreateRequest;
+import com.innedu.slide.dto.TemplateImportReport;
+import com.innedu.slide.entity.Template;
+import com.innedu.slide.repository.TemplateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Templates whose name does not survive the trip to a file name, synced back from their file
+ * by the startup import and the directory watcher
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:file-sync-tests",
+        "app.templates.watch.debounce-ms=50"
+})
+class TemplateFileSyncTests {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @TempDir
+    static Path templatesDir;
+
+    @DynamicPropertySource
+    static void templatesPath(DynamicPropertyRegistry registry) {
+        registry.add("app.templates.path", templatesDir::toString);
+    }
+
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private TemplateFileWriter fileWriter;
+
+    @Autowired
+    private TemplateRepository templateRepository;
+
+    private Template create(String name) throws InterruptedException {
+        Template created = templateService.createTemplate(new TemplateCreateRequest(
+                name, name, null, "<section>" + name + "</section>", "black"));
+        assertThat(fileWriter.awaitDrained(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        return created;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("synced in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void restartImportMatchesFilesToTheirTemplates() throws Exception {
+        Template unicode = create("Lập trình cơ bản");
+        Template punctuated = create("Chapter 1: Basics");
+        Template underscored = create("deck_v2");
+        assertThat(List.of(unicode.getFilePath(), punctuated.getFilePath(), underscored.getFilePath()))
+                .containsExactly("l-p-tr-nh-c--b-n.html", "chapter-1--basics.html", "deck-v2.html");
+        long rows = templateRepository.count();
+
+        // What the next start does with the database and directory left behind
+        TemplateImportReport report = templateService.initializeTemplatesFromFileSystem();
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getFailed()).isZero();
+        assertThat(templateRepository.count()).isEqualTo(rows);
+
+        Files.delete(templatesDir.resolve(punctuated.getFilePath()));
+        templateService.initializeTemplatesFromFileSystem();
+        await(() -> !templateRepository.findById(punctuated.getId()).orElseThrow().getIsActive());
+        assertThat(templateRepository.findById(unicode.getId()).orElseThrow().getIsActive()).isTrue();
+        assertThat(templateRepository.count()).isEqualTo(rows);
+    }
+
+    @Test
+    void editedFileUpdatesTheTemplateThatOwnsIt() throws Exception {
+        Template created = create("Lập trình");
+        assertThat(created.getFilePath()).isEqualTo("l-p-tr-nh.html");
+        long rows = templateRepository.count();
+
+        // An editor saves the file: not a write of ours, so the watcher syncs it
+        Files.writeString(templatesDir.resolve(created.getFilePath()), "<section>edited</section>");
+        await(() -> templateService.getTemplateById(created.getId()).getContent().equals("<section>edited</section>"));
+        assertThat(templateRepository.count()).isEqualTo(rows);
+    }
+}
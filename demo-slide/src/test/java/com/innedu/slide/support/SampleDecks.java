@@ -0,0 +1,113 @@
+package com.innedu.slide.support;
+
+import com.innedu.slide.entity.Template;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic reveal.js decks for the benchmarks and the load test, shaped like the ones
+ * teachers upload: a title slide, then slides with a heading, a paragraph and a bullet list,
+ * mostly in Vietnamese.
+ */
+public final class SampleDecks {
+
+    private static final String[] THEMES = {"black", "white", "sky", "moon", "serif", "league"};
+
+    private static final String[] SUBJECTS = {
+            "Lập trình Java cơ bản", "Cấu trúc dữ liệu và giải thuật", "Lịch sử Việt Nam thế kỷ XX",
+            "Địa lý tự nhiên", "Hóa học hữu cơ", "Tiếng Anh giao tiếp", "Vật lý đại cương",
+            "Kinh tế vi mô", "Sinh học tế bào", "Ngữ văn lớp mười hai", "Toán rời rạc",
+            "Mạng máy tính", "Cơ sở dữ liệu", "Kỹ năng thuyết trình", "Quản trị dự án phần mềm"};
+
+    private static final String[] WORDS = {
+            "học sinh", "giáo viên", "bài giảng", "khái niệm", "ví dụ", "thực hành", "phương pháp",
+            "kiến thức", "đánh giá", "mục tiêu", "nội dung", "câu hỏi", "thảo luận", "kết quả",
+            "dữ liệu", "hệ thống", "chương trình", "ứng dụng", "tổng quan", "chi tiết", "quan trọng",
+            "hiệu quả", "phân tích", "so sánh", "trình bày", "tài liệu", "tham khảo", "bài tập",
+            "lesson", "overview", "module", "project"};
+
+    private SampleDecks() {}
+
+    /**
+     * A deck of {@code slides} slides; the same seed always gives the same deck
+     */
+    public static String deck(long seed, int slides) {
+        Random random = new Random(seed);
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        String theme = THEMES[random.nextInt(THEMES.length)];
+
+        StringBuilder html = new StringBuilder(512 + slides * 640);
+        html.append("<!DOCTYPE html>\n<html lang=\"vi\">\n  <head>\n")
+                .append("    <meta charset=\"utf-8\" />\n")
+                .append("    <title>").append(subject).append(" - reveal.js</title>\n")
+                .append("    <link rel=\"stylesheet\" href=\"../dist/reset.css\" />\n")
+                .append("    <link rel=\"stylesheet\" href=\"../dist/reveal.css\" />\n")
+                .append("    <link rel=\"stylesheet\" href=\"../dist/theme/").append(theme).append(".css\" />\n")
+                .append("    <link rel=\"stylesheet\" href=\"../plugin/highlight/monokai.css\" />\n")
+                .append("  </head>\n  <body>\n    <div class=\"reveal\">\n      <div class=\"slides\">\n")
+                .append("        <section data-background-gradient=\"linear-gradient(to bottom, #283b95, #17b2c3)\">\n")
+                .append("          <h1>").append(subject).append("</h1>\n")
+                .append("          <p><small>Giảng viên: Nguyễn Văn An</small></p>\n")
+                .append("        </section>\n");
+        for (int i = 1; i < slides; i++) {
+            html.append("        <section>\n          <h2>").append(i).append(". ").append(sentence(random, 4))
+                    .append("</h2>\n          <p>").append(sentence(random, 18)).append(".</p>\n          <ul>\n");
+            int items = 3 + random.nextInt(3);
+            for (int j = 0; j < items; j++) {
+                html.append("            <li class=\"fragment\">").append(sentence(random, 6)).append("</li>\n");
+            }
+            html.append("          </ul>\n");
+            if (i % 7 == 0) {
+                html.append("          <img src=\"images/hinh-").append(i).append(".png\" alt=\"\" />\n");
+            }
+            html.append("        </section>\n");
+        }
+        html.append("      </div>\n    </div>\n")
+                .append("    <script src=\"../dist/reveal.js\"></script>\n")
+                .append("    <script>Reveal.initialize({ hash: true });</script>\n")
+                .append("  </body>\n</html>\n");
+        return html.toString();
+    }
+
+    /**
+     * Template entities as loaded from the catalog, slide counts spread around {@code slides}
+     */
+    public static List<Template> templates(int count, int slides) {
+        List<Template> templates = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < count; i++) {
+            Template template = new Template(name(i), displayName(i), name(i) + ".html",
+                    deck(i, slides / 2 + (i % Math.max(slides, 1))));
+            template.setId((long) i + 1);
+            template.setDescription(sentence(new Random(i), 12));
+            template.setCreatedAt(now.plusMinutes(i));
+            template.setUpdatedAt(now.plusMinutes(i));
+            template.setVersion(0L);
+            templates.add(template);
+        }
+        return templates;
+    }
+
+    public static String name(int i) {
+        return "bai-giang-" + i;
+    }
+
+    public static String displayName(int i) {
+        return SUBJECTS[i % SUBJECTS.length] + " - Bài " + (i + 1);
+    }
+
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        sentence.setCharAt(0, Character.toUpperCase(sentence.charAt(0)));
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.innedu.slide.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineDeltaTests {
+
+    @Test
+    void deltaRebuildsTheNewText() {
+        Random random = new Random(42);
+        StringBuilder deck = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            deck.append("<section><p>Slide ").append(i).append(" · ").append(random.nextLong()).append("</p></section>\n");
+        }
+        String base = deck.toString();
+        String edited = base.replace("Slide 10 ", "Trang 10 ").replace("Slide 1500 ", "") + "<section>end</section>";
+
+        byte[] delta = LineDelta.create(base, edited);
+
+        assertThat(LineDelta.apply(base, delta)).isEqualTo(edited);
+        // Proportional to the edit, not to the ~100 KB deck
+        assertThat(delta.length).isLessThan(300);
+    }
+
+    @Test
+    void largeRewritesStillRoundTrip() {
+        StringBuilder base = new StringBuilder();
+        StringBuilder rewritten = new StringBuilder();
+        for (int i = 0; i < 3 * LineDiff.MAX_EDIT_DISTANCE; i++) {
+            base.append("a").append(i).append('\n');
+            rewritten.append(i % 2 == 0 ? "a" + i : "b" + i).append('\n');
+        }
+
+        byte[] delta = LineDelta.create(base.toString(), rewritten.toString());
+
+        assertThat(LineDelta.apply(base.toString(), delta)).isEqualTo(rewritten.toString());
+        assertThat(LineDelta.apply("", LineDelta.create("", "x"))).isEqualTo("x");
+    }
+}
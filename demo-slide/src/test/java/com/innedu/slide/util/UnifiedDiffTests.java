@@ -0,0 +1,88 @@
+package com.innedu.slide.util;
+
+import com.innedu.slide.exception.PatchConflictException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UnifiedDiffTests {
+
+    private static final String ORIGINAL = """
+            <section>
+              <h1>One</h1>
+            </section>
+            <section>
+              <h1>Two</h1>
+            </section>
+            """;
+
+    @Test
+    void appliesHunksAtTheirLines() {
+        String diff = """
+                --- a/deck.html
+                +++ b/deck.html
+                @@ -1,3 +1,4 @@
+                 <section>
+                -  <h1>One</h1>
+                +  <h1>First</h1>
+                +  <p>Intro</p>
+                 </section>
+                @@ -5,2 +6,2 @@
+                -  <h1>Two</h1>
+                +  <h1>Second</h1>
+                 </section>
+                """;
+
+        assertThat(UnifiedDiff.apply(ORIGINAL, diff)).isEqualTo("""
+                <section>
+                  <h1>First</h1>
+                  <p>Intro</p>
+                </section>
+                <section>
+                  <h1>Second</h1>
+                </section>
+                """);
+    }
+
+    @Test
+    void honoursNoNewlineMarker() {
+        String diff = """
+                @@ -6 +6 @@
+                -</section>
+                +</section>
+                \\ No newline at end of file
+                """;
+
+        assertThat(UnifiedDiff.apply(ORIGINAL, diff)).isEqualTo(ORIGINAL.stripTrailing());
+    }
+
+    @Test
+    void rejectsStaleContextAndMalformedHunks() {
+        String stale = """
+                @@ -2 +2 @@
+                -  <h1>Uno</h1>
+                +  <h1>First</h1>
+                """;
+        String truncated = """
+                @@ -1,3 +1,3 @@
+                 <section>
+                """;
+
+        assertThatThrownBy(() -> UnifiedDiff.apply(ORIGINAL, stale)).isInstanceOf(PatchConflictException.class);
+        assertThatThrownBy(() -> UnifiedDiff.apply(ORIGINAL, truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UnifiedDiff.apply(ORIGINAL, "not a diff")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void formatsDiffsThatApplyBack() {
+        String edited = ORIGINAL.replace("One", "Uno").replace("</section>\n<section>", "</section>\n<hr>\n<section>")
+                .stripTrailing();
+
+        String diff = UnifiedDiff.format(ORIGINAL, edited, "a", "b", 1);
+
+        assertThat(diff).startsWith("--- a\n+++ b\n@@ -1,6 +1,7 @@\n");
+        assertThat(UnifiedDiff.apply(ORIGINAL, diff)).isEqualTo(edited);
+        assertThat(UnifiedDiff.format(ORIGINAL, ORIGINAL, "a", "b", 3)).isEmpty();
+    }
+}